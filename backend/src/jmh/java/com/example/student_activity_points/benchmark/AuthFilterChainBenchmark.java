@@ -0,0 +1,259 @@
+package com.example.student_activity_points.benchmark;
+
+import com.example.student_activity_points.filters.CsrfFilter;
+import com.example.student_activity_points.filters.LoginRateLimitFilter;
+import com.example.student_activity_points.filters.LoginRateLimitFilterStudFa;
+import com.example.student_activity_points.security.JwtClaims;
+import com.example.student_activity_points.security.JwtRequestFilter;
+import com.example.student_activity_points.security.JwtUtil;
+import com.example.student_activity_points.security.SecurityConfig;
+import com.example.student_activity_points.security.SecurityHeadersWriter;
+import com.example.student_activity_points.service.CsrfTokenService;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.header.HeaderWriterFilter;
+import org.springframework.security.web.header.writers.ContentSecurityPolicyHeaderWriter;
+import org.springframework.security.web.header.writers.XXssProtectionHeaderWriter;
+import org.springframework.security.web.header.writers.frameoptions.XFrameOptionsHeaderWriter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.security.Key;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the authentication filters, driven directly with mock servlet
+ * requests (no Spring context, no container).
+ *
+ * Each filter is measured on its common path, plus the whole chain in SecurityConfig
+ * order. mockRequestOnly is the harness overhead to subtract from the filter numbers.
+ * jwtLegacyFiveParses reproduces the pre-cache JwtUtil (new key and parser on every
+ * call, five calls per request) as the baseline for jwtFilterCachedToken.
+ *
+ * Run with: mvn -Pbenchmark verify -Djmh.include=AuthFilterChain
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AuthFilterChainBenchmark {
+
+    private static final String SECRET = Base64.getEncoder()
+            .encodeToString("benchmark-secret-key-of-at-least-256-bits!!".getBytes());
+
+    private static final String SESSION_ID = "refresh-token-value";
+
+    private JwtUtil jwtUtil;
+    private JwtParser parser;
+    private String token;
+
+    private JwtRequestFilter jwtRequestFilter;
+    private CsrfFilter csrfFilter;
+    private LoginRateLimitFilter loginRateLimitFilter;
+    private LoginRateLimitFilterStudFa loginRateLimitFilterStudFa;
+    private HeaderWriterFilter headerWriterFilter;
+    private Bucket bucket;
+
+    private MockHttpServletRequest getRequest;
+    private MockHttpServletRequest postRequest;
+    private MockHttpServletRequest loginRequest;
+    private MockHttpServletResponse response;
+    private HttpServlet noOpServlet;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "SECRET_KEY", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheMaxSize", 10_000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheTtlSeconds", 300L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        token = jwtUtil.generateFaToken("fa@example.com", 1L);
+        parser = Jwts.parserBuilder().setSigningKey(signingKey()).build();
+
+        jwtRequestFilter = new JwtRequestFilter();
+        ReflectionTestUtils.setField(jwtRequestFilter, "jwtUtil", jwtUtil);
+
+        CsrfTokenService csrfTokenService = new CsrfTokenService();
+        String csrfToken = csrfTokenService.generateToken(SESSION_ID);
+        csrfFilter = new CsrfFilter();
+        ReflectionTestUtils.setField(csrfFilter, "csrfTokenService", csrfTokenService);
+
+        loginRateLimitFilter = new LoginRateLimitFilter();
+        loginRateLimitFilterStudFa = new LoginRateLimitFilterStudFa();
+
+        headerWriterFilter = new HeaderWriterFilter(List.of(
+                new ContentSecurityPolicyHeaderWriter(SecurityConfig.CSP_POLICY),
+                new XFrameOptionsHeaderWriter(XFrameOptionsHeaderWriter.XFrameOptionsMode.DENY),
+                new XXssProtectionHeaderWriter(),
+                new SecurityHeadersWriter()));
+
+        // Large enough never to run dry, so only the consume cost is measured
+        bucket = Bucket.builder()
+                .addLimit(Bandwidth.classic(1_000_000_000_000L,
+                        Refill.greedy(1_000_000_000L, Duration.ofSeconds(1))))
+                .build();
+
+        // A browser sends several cookies; the filters scan for theirs
+        Cookie[] cookies = {
+                new Cookie("_ga", "GA1.1.123456789.1700000000"),
+                new Cookie("theme", "dark"),
+                new Cookie("refreshToken", SESSION_ID),
+                new Cookie("accessToken", token)
+        };
+
+        getRequest = new MockHttpServletRequest("GET", "/api/fa/points-summary");
+        getRequest.setCookies(cookies);
+
+        postRequest = new MockHttpServletRequest("POST", "/api/fa/manage-activities");
+        postRequest.setCookies(cookies);
+        postRequest.addHeader("X-CSRF-Token", csrfToken);
+
+        // Rate limits run out after the first few calls, so this measures the 429 path
+        loginRequest = new MockHttpServletRequest("POST", "/api/auth/login-student");
+        loginRequest.setRemoteAddr("203.0.113.7");
+
+        response = new MockHttpServletResponse();
+        noOpServlet = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+            }
+        };
+    }
+
+    @Benchmark
+    public MockHttpServletResponse mockRequestOnly() throws IOException, ServletException {
+        response.reset();
+        new MockFilterChain().doFilter(getRequest, response);
+        return response;
+    }
+
+    @Benchmark
+    public String cookieScan() {
+        Cookie[] cookies = getRequest.getCookies();
+        for (Cookie cookie : cookies) {
+            if ("accessToken".equals(cookie.getName())) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public JwtClaims jwtParseCached() {
+        return jwtUtil.parse(token);
+    }
+
+    @Benchmark
+    public Claims jwtVerifyOnce() {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    @Benchmark
+    public void jwtLegacyFiveParses(Blackhole blackhole) {
+        // extractEmail, extractRole, extractFaId and validateToken (email + expiry)
+        for (int i = 0; i < 5; i++) {
+            blackhole.consume(Jwts.parserBuilder()
+                    .setSigningKey(signingKey())
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody());
+        }
+    }
+
+    @Benchmark
+    public MockHttpServletResponse jwtFilterCachedToken() throws IOException, ServletException {
+        response.reset();
+        SecurityContextHolder.clearContext();
+        jwtRequestFilter.doFilter(getRequest, response, new MockFilterChain());
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse csrfFilterPost() throws IOException, ServletException {
+        response.reset();
+        csrfFilter.doFilter(postRequest, response, new MockFilterChain());
+        return response;
+    }
+
+    @Benchmark
+    public boolean bucketConsume() {
+        return bucket.tryConsume(1);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse rateLimitFiltersPassThrough() throws IOException, ServletException {
+        response.reset();
+        new MockFilterChain(noOpServlet, loginRateLimitFilterStudFa, loginRateLimitFilter)
+                .doFilter(getRequest, response);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse rateLimitFiltersLoginRejected() throws IOException, ServletException {
+        response.reset();
+        new MockFilterChain(noOpServlet, loginRateLimitFilterStudFa, loginRateLimitFilter)
+                .doFilter(loginRequest, response);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse headerWriter() throws IOException, ServletException {
+        response.reset();
+        headerWriterFilter.doFilter(getRequest, response, new MockFilterChain());
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse fullChainGet() throws IOException, ServletException {
+        return fullChain(getRequest);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse fullChainPost() throws IOException, ServletException {
+        return fullChain(postRequest);
+    }
+
+    /* ===================== INTERNAL ===================== */
+
+    // Same order as SecurityConfig: header writer, then the filters added before
+    // UsernamePasswordAuthenticationFilter in registration order
+    private MockHttpServletResponse fullChain(MockHttpServletRequest request) throws IOException, ServletException {
+        response.reset();
+        SecurityContextHolder.clearContext();
+        Filter[] filters = {
+                headerWriterFilter, csrfFilter, loginRateLimitFilterStudFa, loginRateLimitFilter, jwtRequestFilter
+        };
+        new MockFilterChain(noOpServlet, filters).doFilter(request, response);
+        return response;
+    }
+
+    private static Key signingKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.student_activity_points.benchmark;
+
+import com.example.student_activity_points.StudentActivityPointsApplication;
+import com.example.student_activity_points.controller.AdminManageActivitiesController;
+import com.example.student_activity_points.controller.AdminManageUsersController;
+import com.example.student_activity_points.controller.ValidationController;
+import com.example.student_activity_points.domain.Activity;
+import com.example.student_activity_points.domain.Departments;
+import com.example.student_activity_points.domain.Fa;
+import com.example.student_activity_points.repository.ActivityRepository;
+import com.example.student_activity_points.repository.DepartmentsRepository;
+import com.example.student_activity_points.repository.FARepository;
+import com.example.student_activity_points.security.AuthUser;
+import com.example.student_activity_points.service.ActivityCatalogService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Semester-start bulk paths, end to end through the admin controllers, against the
+ * full application context on an in-memory H2 database in MySQL mode.
+ *
+ * Each iteration is one upload of a synthetic workbook with the given number of rows
+ * into a freshly reset database. Besides the JMH time per upload, every benchmark
+ * reports rowsPerSecond, peakHeapMb (heap pools' peak during the upload) and
+ * statements (JDBC statements prepared by Hibernate during the upload).
+ *
+ * Finalization is posted in 10,000-SID requests, the endpoint's per-request limit.
+ *
+ * Run with: mvn -Pbenchmark verify -Djmh.include=BulkIngestion
+ * One size only: add "-Djmh.args=-p rows=1000"
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class BulkIngestionBenchmark {
+
+    private static final String XLSX = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    private static final int FA_COUNT = 50;
+
+    private static final int FINALIZE_REQUEST_SIZE = 10_000;
+
+    @Param({ "1000", "10000", "100000" })
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private Statistics statistics;
+
+    private AdminManageUsersController usersController;
+    private AdminManageActivitiesController activitiesController;
+    private ValidationController validationController;
+
+    private int did;
+    private List<Long> faids;
+    private List<String> enrolledSids;
+    private Long activityId;
+
+    private byte[] studentsFile;
+    private byte[] activitiesFile;
+    private byte[] enrollmentFile;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Metrics {
+        public double rowsPerSecond;
+        public long peakHeapMb;
+        public long statements;
+    }
+
+    @Setup(Level.Trial)
+    public void startApplication() throws Exception {
+        String secret = Base64.getEncoder().encodeToString("benchmark-secret-key-of-at-least-256-bits!!".getBytes());
+        context = new SpringApplicationBuilder(StudentActivityPointsApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.properties.hibernate.generate_statistics=true",
+                "--spring.flyway.enabled=false",
+                "--schema.index-check.enabled=false",
+                "--antivirus.enabled=false",
+                "--myapp.secret-key=" + secret,
+                "--recaptcha.secret=benchmark",
+                "--recaptcha.site-key=benchmark",
+                "--spring.mail.username=benchmark@example.com",
+                "--spring.mail.password=benchmark",
+                "--proof.storage.root=" + Files.createTempDirectory("bench-proofs"),
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate=WARN",
+                "--logging.level.org.springframework.jdbc.core=WARN",
+                "--logging.level.com.example.student_activity_points=ERROR");
+
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        usersController = context.getBean(AdminManageUsersController.class);
+        activitiesController = context.getBean(AdminManageActivitiesController.class);
+        validationController = context.getBean(ValidationController.class);
+
+        Departments department = new Departments();
+        department.setName("Benchmark");
+        did = context.getBean(DepartmentsRepository.class).save(department).getDID().intValue();
+
+        faids = new ArrayList<>();
+        for (int i = 0; i < FA_COUNT; i++) {
+            Fa fa = new Fa();
+            fa.setName("Advisor");
+            fa.setEmailID("fa" + i + "@example.com");
+            fa.setDepartment(department);
+            faids.add(context.getBean(FARepository.class).save(fa).getFAID());
+        }
+
+        enrolledSids = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            enrolledSids.add(SyntheticWorkbooks.sid("A", i));
+        }
+
+        studentsFile = SyntheticWorkbooks.students("U", rows, did, faids);
+        activitiesFile = SyntheticWorkbooks.activities("Bench activity", rows, did);
+        enrollmentFile = SyntheticWorkbooks.enrollment(enrolledSids);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    /** Empty tables plus rows existing students and one activity to take attendance for */
+    @Setup(Level.Iteration)
+    public void resetDatabase() {
+        for (String table : List.of("points_ledger", "fa_points_summary", "student_activity",
+                "validation", "requests", "student", "activity")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+
+        List<Object[]> students = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            String sid = enrolledSids.get(i);
+            students.add(new Object[] { sid, "Enrolled", faids.get(i % faids.size()),
+                    sid.toLowerCase() + "@example.com", did });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO student (sid, name, faid, emailid, did, dept_points, " +
+                "institute_points, other_points, activity_points) VALUES (?, ?, ?, ?, ?, 0, 0, 0, 0)", students);
+
+        Activity activity = new Activity();
+        activity.setName("Benchmark attendance");
+        activity.setDescription("Attendance target");
+        activity.setPoints(5);
+        activity.setDID(did);
+        activity.setDate(new Date());
+        activity.setEnd_date(new Date());
+        activity.setType("Institute");
+        activity.setMandatory(1);
+        activityId = context.getBean(ActivityRepository.class).save(activity).getActID();
+
+        // Rows above were written behind the catalog's back
+        context.getBean(ActivityCatalogService.class).invalidate();
+        System.gc();
+    }
+
+    @Benchmark
+    public Object uploadStudents(Metrics metrics) throws Exception {
+        long start = begin();
+        ResponseEntity<?> response = usersController.uploadStudents(
+                new MockMultipartFile("file", SyntheticWorkbooks.STUDENTS_FILENAME, XLSX, studentsFile));
+        return end(metrics, start, response);
+    }
+
+    @Benchmark
+    public Object uploadActivities(Metrics metrics) throws Exception {
+        long start = begin();
+        ResponseEntity<?> response = activitiesController.bulkUpload(
+                new MockMultipartFile("file", SyntheticWorkbooks.ACTIVITIES_FILENAME, XLSX, activitiesFile));
+        return end(metrics, start, response);
+    }
+
+    @Benchmark
+    public Object checkAttendance(Metrics metrics) throws Exception {
+        long start = begin();
+        ResponseEntity<?> response = validationController.checkAttendance(
+                new MockMultipartFile("file", SyntheticWorkbooks.ENROLLMENT_FILENAME, XLSX, enrollmentFile),
+                activityId);
+        return end(metrics, start, response);
+    }
+
+    @Benchmark
+    public Object finalizeAttendance(Metrics metrics) throws Exception {
+        long start = begin();
+        ResponseEntity<?> response = null;
+        for (int from = 0; from < enrolledSids.size(); from += FINALIZE_REQUEST_SIZE) {
+            response = validationController.finalizeAttendance(activityId,
+                    new ArrayList<>(enrolledSids.subList(from, Math.min(from + FINALIZE_REQUEST_SIZE, rows))));
+            check(response);
+        }
+        return end(metrics, start, response);
+    }
+
+    /* ===================== INTERNAL ===================== */
+
+    private long begin() {
+        AuthUser admin = new AuthUser("admin@example.com", "ADMIN", null, null);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(admin, null, admin.getAuthorities()));
+        statistics.clear();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) pool.resetPeakUsage();
+        }
+        return System.nanoTime();
+    }
+
+    private Object end(Metrics metrics, long start, ResponseEntity<?> response) {
+        long elapsed = System.nanoTime() - start;
+        check(response);
+
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) peakHeap += pool.getPeakUsage().getUsed();
+        }
+        metrics.rowsPerSecond = rows * 1_000_000_000.0 / elapsed;
+        metrics.peakHeapMb = peakHeap / (1024 * 1024);
+        metrics.statements = statistics.getPrepareStatementCount();
+        return response.getBody();
+    }
+
+    // A rejected upload would measure the error path, so fail the run instead
+    private static void check(ResponseEntity<?> response) {
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new IllegalStateException("Upload rejected: " + response.getStatusCode() + " " + response.getBody());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.student_activity_points.benchmark;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Generates the upload workbooks the admin bulk endpoints expect, with valid rows,
+ * using POI's streaming writer so 100k-row files do not need a large heap.
+ */
+final class SyntheticWorkbooks {
+
+    static final String STUDENTS_FILENAME = "student_accounts_to_be_created.xlsx";
+    static final String ACTIVITIES_FILENAME = "activities_to_be_created.xlsx";
+    static final String ENROLLMENT_FILENAME = "enrollment_list.xlsx";
+
+    private static final String[] STUDENT_HEADERS = {
+            "sid", "name", "emailid", "did", "faid", "dept_points", "institute_points", "other_points"
+    };
+
+    private static final String[] ACTIVITY_HEADERS = {
+            "name", "description", "points", "DID", "date", "end_date", "type", "mandatory"
+    };
+
+    private static final String[] CATEGORIES = { "Department", "Institute", "Other" };
+
+    private SyntheticWorkbooks() {
+    }
+
+    /** SIDs are 9 characters, as the student row validator requires */
+    static String sid(String prefix, int index) {
+        return prefix + String.format("%08d", index);
+    }
+
+    static byte[] students(String sidPrefix, int rows, int did, List<Long> faids) {
+        return write(STUDENT_HEADERS, rows, (row, i) -> {
+            String sid = sid(sidPrefix, i);
+            row.createCell(0).setCellValue(sid);
+            row.createCell(1).setCellValue("Student " + letters(i));
+            row.createCell(2).setCellValue(sid.toLowerCase() + "@example.com");
+            row.createCell(3).setCellValue(did);
+            row.createCell(4).setCellValue(faids.get(i % faids.size()));
+            row.createCell(5).setCellValue(i % 20);
+            row.createCell(6).setCellValue(i % 15);
+            row.createCell(7).setCellValue(i % 10);
+        });
+    }
+
+    static byte[] activities(String namePrefix, int rows, int did) {
+        LocalDate start = LocalDate.of(2026, 1, 1);
+        return write(ACTIVITY_HEADERS, rows, (row, i) -> {
+            LocalDate date = start.plusDays(i % 365);
+            row.createCell(0).setCellValue(namePrefix + " " + i);
+            row.createCell(1).setCellValue("Synthetic activity " + i + " for ingestion benchmarks");
+            row.createCell(2).setCellValue(1 + i % 20);
+            row.createCell(3).setCellValue(did);
+            row.createCell(4).setCellValue(date.toString());
+            row.createCell(5).setCellValue(date.plusDays(1).toString());
+            row.createCell(6).setCellValue(CATEGORIES[i % CATEGORIES.length]);
+            row.createCell(7).setCellValue(i % 2);
+        });
+    }
+
+    static byte[] enrollment(List<String> sids) {
+        return write(new String[] { "sid" }, sids.size(),
+                (row, i) -> row.createCell(0).setCellValue(sids.get(i)));
+    }
+
+    /* ===================== INTERNAL ===================== */
+
+    private interface RowWriter {
+        void write(Row row, int index);
+    }
+
+    private static byte[] write(String[] headers, int rows, RowWriter writer) {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(1000)) {
+            Sheet sheet = workbook.createSheet("Sheet1");
+            Row header = sheet.createRow(0);
+            for (int col = 0; col < headers.length; col++) {
+                header.createCell(col).setCellValue(headers[col]);
+            }
+            for (int i = 0; i < rows; i++) {
+                writer.write(sheet.createRow(i + 1), i);
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            workbook.write(out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Student names must be alphabetic
+    private static String letters(int value) {
+        StringBuilder name = new StringBuilder();
+        do {
+            name.append((char) ('a' + value % 26));
+            value /= 26;
+        } while (value > 0);
+        return name.toString();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.student_activity_points.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Warns at startup when an index the hot lookup paths rely on is missing.
+ *
+ * Matching is by leading columns rather than by name, so an equivalent index created
+ * under another name (or a unique constraint) counts. The expected set mirrors
+ * db/migration/V3__hot_path_indexes.sql and the @Index declarations on the entities.
+ */
+@Component
+public class IndexHealthCheck {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexHealthCheck.class);
+
+    private static final List<ExpectedIndex> EXPECTED = List.of(
+            new ExpectedIndex("idx_student_faid_name", "student", "faid", "name"),
+            new ExpectedIndex("uk_student_emailid", "student", "emailid"),
+            new ExpectedIndex("idx_requests_sid_status", "requests", "sid", "status"),
+            new ExpectedIndex("idx_student_activity_sid_date", "student_activity", "sid", "date"),
+            new ExpectedIndex("primary key", "student_activity", "actid"),
+            new ExpectedIndex("idx_activity_name", "activity", "name"),
+            new ExpectedIndex("idx_activity_mandatory", "activity", "mandatory"),
+            new ExpectedIndex("idx_validation_actid_sid", "validation", "actid", "sid"),
+            new ExpectedIndex("idx_announcements_faid_date", "announcements", "faid", "date"),
+            new ExpectedIndex("uk_refresh_tokens_token", "refresh_tokens", "token"),
+            new ExpectedIndex("idx_refresh_tokens_user", "refresh_tokens", "user_email", "user_role"),
+            new ExpectedIndex("idx_refresh_tokens_expiry", "refresh_tokens", "expiry_date"),
+            new ExpectedIndex("idx_points_ledger_sid", "points_ledger", "sid"),
+            new ExpectedIndex("idx_mail_outbox_due", "mail_outbox", "status", "next_attempt_at")
+    );
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${schema.index-check.enabled:true}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkIndexes() {
+        if (!enabled) return;
+
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            Map<String, Collection<List<String>>> indexesByTable = new HashMap<>();
+            int missing = 0;
+
+            for (ExpectedIndex expected : EXPECTED) {
+                Collection<List<String>> indexes = indexesByTable.computeIfAbsent(expected.table,
+                        table -> readIndexes(connection, metaData, table));
+
+                boolean covered = indexes.stream().anyMatch(columns -> columns.size() >= expected.columns.size()
+                        && columns.subList(0, expected.columns.size()).equals(expected.columns));
+                if (!covered) {
+                    missing++;
+                    log.warn("Missing index {} on {}({}): lookups on these columns will scan the table. " +
+                             "Run the db/migration scripts against this database.",
+                             expected.name, expected.table, String.join(", ", expected.columns));
+                }
+            }
+
+            if (missing == 0) {
+                log.debug("All {} expected indexes present", EXPECTED.size());
+            }
+        } catch (SQLException e) {
+            log.warn("Unable to check database indexes", e);
+        }
+    }
+
+    /* ===================== INTERNAL ===================== */
+
+    // Column lists of every index on the table, lowercased and in key order
+    private static Collection<List<String>> readIndexes(Connection connection, DatabaseMetaData metaData, String table) {
+        Map<String, SortedMap<Short, String>> indexes = new HashMap<>();
+        try {
+            String name = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+            try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), name, false, true)) {
+                while (rs.next()) {
+                    String index = rs.getString("INDEX_NAME");
+                    String column = rs.getString("COLUMN_NAME");
+                    if (index == null || column == null) continue;
+                    indexes.computeIfAbsent(index, key -> new TreeMap<>())
+                            .put(rs.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+                }
+            }
+        } catch (SQLException e) {
+            log.warn("Unable to read indexes of table {}", table, e);
+        }
+
+        List<List<String>> result = new ArrayList<>();
+        indexes.values().forEach(columns -> result.add(new ArrayList<>(columns.values())));
+        return result;
+    }
+
+    private static final class ExpectedIndex {
+        private final String name;
+        private final String table;
+        private final List<String> columns;
+
+        ExpectedIndex(String name, String table, String... columns) {
+            this.name = name;
+            this.table = table;
+            this.columns = List.of(columns);
+        }
+    }
+}
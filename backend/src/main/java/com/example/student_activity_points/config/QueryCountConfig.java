@@ -0,0 +1,56 @@
+package com.example.student_activity_points.config;
+
+import com.example.student_activity_points.util.QueryCounter;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Feeds QueryCounter from Hibernate: a StatementInspector counts every statement
+ * prepared, and a session listener adds up the time spent executing them.
+ */
+@Configuration
+public class QueryCountConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountHibernateCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                QueryCounter.statementPrepared();
+                return sql;
+            });
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, JdbcTimingListener.class.getName());
+        };
+    }
+
+    /** Created by Hibernate for each session, so the start times need no synchronization */
+    public static class JdbcTimingListener implements SessionEventListener {
+
+        private long statementStart;
+        private long batchStart;
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            statementStart = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            QueryCounter.jdbcTime(System.nanoTime() - statementStart);
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            batchStart = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            QueryCounter.jdbcTime(System.nanoTime() - batchStart);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.student_activity_points.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// spring.task.scheduling.enabled=false turns the scheduled jobs off (the tests drive them directly)
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "spring.task.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
@@ -1,7 +1,7 @@
 package com.example.student_activity_points.controller;
 
 import com.example.student_activity_points.domain.Activity;
-import com.example.student_activity_points.repository.ActivityRepository;
+import com.example.student_activity_points.service.ActivityCatalogService;
 
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
@@ -16,18 +16,18 @@ import org.slf4j.LoggerFactory;
 @CrossOrigin(origins = "http://localhost:5173")
 public class ActivityController {
 
-    private final ActivityRepository activityRepository;
+    private final ActivityCatalogService activityCatalogService;
     
     private static final Logger log = LoggerFactory.getLogger(ActivityController.class);
 
-    public ActivityController(ActivityRepository activityRepository) {
-        this.activityRepository = activityRepository;
+    public ActivityController(ActivityCatalogService activityCatalogService) {
+        this.activityCatalogService = activityCatalogService;
     }
 
     @GetMapping
     public ResponseEntity<?> getAllActivities() {
         try {
-            List<Activity> activities = (List<Activity>) activityRepository.findAll();
+            List<Activity> activities = activityCatalogService.findAll();
             log.debug("Retrieved {} activities", activities.size());
             return ResponseEntity.ok(activities);
 
@@ -550,23 +550,14 @@ public ResponseEntity<?> refreshToken(HttpServletRequest httpRequest, HttpServle
                     admin.setResetTokenExpiry(expiry);
                     adminRepo.save(admin);
                     
-                    // Send email ASYNCHRONOUSLY (non-blocking)
-                    final String adminEmail = admin.getEmail();
-                    final String tokenToSend = token;
-                    CompletableFuture.runAsync(() -> {
-                        try {
-                            
-                            String resetLink = frontendBaseUrl + "/reset-password?token=" +
-        URLEncoder.encode(tokenToSend, StandardCharsets.UTF_8);
-                            emailService.sendEmail(adminEmail, "Password Reset Request",
-                                    "You requested a password reset. Click here to reset your password: " + 
-                                    resetLink + "\n\nThis link expires in 30 minutes.\n\n" +
-                                    "If you didn't request this, please ignore this email.");
-                            log.info("✅ Password reset email sent to: {}", adminEmail);
-                        } catch (Exception e) {
-                            log.error("❌ Failed to send password reset email to {}", adminEmail, e);
-                        }
-                    });
+                    // Queued in the mail outbox; sent (and retried) by MailOutboxDispatcher
+                    String resetLink = frontendBaseUrl + "/reset-password?token=" +
+                            URLEncoder.encode(token, StandardCharsets.UTF_8);
+                    emailService.sendEmail(admin.getEmail(), "Password Reset Request",
+                            "You requested a password reset. Click here to reset your password: " +
+                            resetLink + "\n\nThis link expires in 30 minutes.\n\n" +
+                            "If you didn't request this, please ignore this email.");
+                    log.info("✅ Password reset email queued for: {}", admin.getEmail());
                 } else {
                     // For non-existent emails, do equivalent database work
                     adminRepo.findByEmail(emailLower + ".dummy");
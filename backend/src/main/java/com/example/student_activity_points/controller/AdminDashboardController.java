@@ -3,11 +3,16 @@ package com.example.student_activity_points.controller;
 import com.example.student_activity_points.repository.ActivityRepository;
 import com.example.student_activity_points.repository.FARepository;
 import com.example.student_activity_points.repository.StudentRepository;
+import com.example.student_activity_points.security.JwtUtil;
+import com.example.student_activity_points.service.ActivityCatalogService;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.slf4j.Logger;
@@ -26,6 +31,12 @@ public class AdminDashboardController {
     @Autowired
     private ActivityRepository activityRepository;
 
+    @Autowired
+    private ActivityCatalogService activityCatalogService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
     private static final Logger log = LoggerFactory.getLogger(AdminDashboardController.class);
 
     @GetMapping("/dashboard-details")
@@ -52,4 +63,34 @@ public class AdminDashboardController {
                     .body("Unable to fetch dashboard statistics");
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/cache-stats")
+    public ResponseEntity<?> getCacheStats() {
+        try {
+            Map<String, Object> catalog = toMap(activityCatalogService.getStats());
+            catalog.put("version", activityCatalogService.getVersion());
+
+            return ResponseEntity.ok(Map.of(
+                "activityCatalog", catalog,
+                "verifiedTokens", toMap(jwtUtil.getVerifiedTokenCacheStats())
+            ));
+
+        } catch (Exception ex) {
+            log.error("Error fetching cache statistics", ex);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Unable to fetch cache statistics");
+        }
+    }
+
+    /* ===================== INTERNAL ===================== */
+
+    private static Map<String, Object> toMap(CacheStats cacheStats) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", cacheStats.hitCount());
+        stats.put("misses", cacheStats.missCount());
+        stats.put("hitRate", cacheStats.hitRate());
+        stats.put("loads", cacheStats.loadCount());
+        stats.put("evictions", cacheStats.evictionCount());
+        return stats;
+    }
+}
@@ -4,13 +4,14 @@ import com.example.student_activity_points.domain.Activity;
 import com.example.student_activity_points.domain.Departments;
 import com.example.student_activity_points.repository.ActivityRepository;
 import com.example.student_activity_points.repository.DepartmentsRepository;
+import com.example.student_activity_points.service.ActivityCatalogService;
 import com.example.student_activity_points.service.ClamAvAntivirusService;
+import com.example.student_activity_points.service.ExcelIngestionService;
+import com.example.student_activity_points.service.ExcelIngestionService.IngestionResult;
+import com.example.student_activity_points.service.MandatoryCountService;
 import com.example.student_activity_points.util.ExcelFileValidationUtil;
 import com.example.student_activity_points.util.ExcelFileValidationUtil.ValidationResult;
 
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -18,7 +19,6 @@ import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.InputStream;
 import java.util.*;
 
 import org.slf4j.Logger;
@@ -31,18 +31,30 @@ public class AdminManageActivitiesController {
     @Autowired
     private ActivityRepository activityRepository;
 
+    @Autowired
+    private ActivityCatalogService activityCatalogService;
+
     @Autowired
     private DepartmentsRepository departmentsRepository;
 
     @Autowired
     private ClamAvAntivirusService antivirusService;
 
+    @Autowired
+    private ExcelIngestionService excelIngestionService;
+
+    @Autowired
+    private MandatoryCountService mandatoryCountService;
+
     @Value("${antivirus.enabled:false}")
     private boolean antivirusEnabled;
 
     private static final Logger log =
             LoggerFactory.getLogger(AdminManageActivitiesController.class);
 
+    private static final String SKIP_DUPLICATE = "duplicate";
+    private static final String SKIP_BLANK = "blank";
+
     /* ===================== FETCH ===================== */
 
     @GetMapping("/manage-activities")
@@ -51,9 +63,9 @@ public class AdminManageActivitiesController {
         try {
             if (mandatory != null) {
                 int m = "yes".equalsIgnoreCase(mandatory) ? 1 : 0;
-                return ResponseEntity.ok(activityRepository.findByMandatory(m));
+                return ResponseEntity.ok(activityCatalogService.findByMandatory(m));
             }
-            return ResponseEntity.ok(activityRepository.findAll());
+            return ResponseEntity.ok(activityCatalogService.findAll());
 
         } catch (Exception ex) {
             log.error("Error loading activities", ex);
@@ -111,56 +123,60 @@ public class AdminManageActivitiesController {
                 "date", "end_date", "type", "mandatory"
         };
     
-        try (InputStream is = file.getInputStream();
-             Workbook workbook = new XSSFWorkbook(is)) {
-    
-            Sheet sheet = workbook.getSheetAt(0);
-    
-            if (!ExcelFileValidationUtil.validateHeaderRow(sheet.getRow(0), HEADERS)) {
+        // Names already present in the catalog or earlier in this file
+        Set<String> seenNames = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+        try {
+            IngestionResult result = excelIngestionService.ingest(file, HEADERS,
+                    row -> {
+                        if (!ExcelFileValidationUtil.isValidActivityRow(row)) {
+                            log.warn("Skipping invalid activity row {}", row.getRowNumber());
+                            return null;
+                        }
+
+                        Activity a = new Activity();
+                        a.setName(row.getString(0));
+                        a.setDescription(row.getString(1));
+                        a.setPoints(row.getInt(2));
+                        a.setDID(row.getInt(3));
+                        a.setDate(row.getDate(4));
+                        a.setEnd_date(row.getDate(5));
+                        a.setType(row.getString(6));
+                        a.setMandatory(row.getInt(7));
+                        return a;
+                    },
+                    (chunk, progress) -> {
+                        seenNames.addAll(activityRepository.findExistingNames(
+                                chunk.stream().map(Activity::getName).toList()));
+
+                        List<Activity> activities = new ArrayList<>();
+                        for (Activity a : chunk) {
+                            if (!seenNames.add(a.getName())) {
+                                log.warn("Skipping duplicate activity {}", a.getName());
+                                progress.skip(SKIP_DUPLICATE);
+                                continue;
+                            }
+                            activities.add(a);
+                        }
+
+                        activityRepository.saveAll(activities);
+                        progress.addWritten(activities.size());
+                    });
+
+            if (!result.isHeaderValid()) {
                 return ResponseEntity.badRequest()
                         .body("Invalid column order for activity file");
             }
-    
-            List<Activity> activities = new ArrayList<>();
-            int skippedCount = 0;
-    
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-    
-                if (row == null) {
-                    skippedCount++;
-                    continue;
-                }
-    
-                if (!ExcelFileValidationUtil.isValidActivityRow(row)) {
-                    log.warn("Skipping invalid activity row {}", i + 1);
-                    skippedCount++;
-                    continue;
-                }
-    
-                Activity a = new Activity();
-                a.setName(ExcelFileValidationUtil.getCellString(row.getCell(0)));
-                a.setDescription(ExcelFileValidationUtil.getCellString(row.getCell(1)));
-                a.setPoints(ExcelFileValidationUtil.getCellInt(row.getCell(2)));
-                a.setDID(ExcelFileValidationUtil.getCellInt(row.getCell(3)));
-                a.setDate(ExcelFileValidationUtil.parseDateSafe(row.getCell(4)));
-                a.setEnd_date(ExcelFileValidationUtil.parseDateSafe(row.getCell(5)));
-                a.setType(ExcelFileValidationUtil.getCellString(row.getCell(6)));
-                a.setMandatory(ExcelFileValidationUtil.getCellInt(row.getCell(7)));
-    
-                activities.add(a);
-            }
-    
-            activityRepository.saveAll(activities);
-    
+
             String message = String.format(
-                    "Uploaded %d activities. Skipped %d invalid rows.",
-                    activities.size(),
-                    skippedCount
+                    "Uploaded %d activities. Skipped %d invalid rows, %d duplicates.",
+                    result.getWritten(),
+                    result.getInvalidRows(),
+                    result.getSkipped(SKIP_DUPLICATE)
             );
-    
+
             return ResponseEntity.ok(message);
-    
+
         } catch (Exception ex) {
             String errorId = UUID.randomUUID().toString();
             log.error("Bulk upload error ID {}", errorId, ex);
@@ -186,53 +202,41 @@ public class AdminManageActivitiesController {
             return ResponseEntity.badRequest().body(vr.getErrorMessage());
         }
     
-        try (Workbook workbook = WorkbookFactory.create(file.getInputStream())) {
-    
-            Sheet sheet = workbook.getSheetAt(0);
-    
+        try {
+            IngestionResult result = excelIngestionService.ingest(file, new String[] { "name" },
+                    row -> row.getString(0),
+                    (chunk, progress) -> {
+                        List<String> names = chunk.stream().filter(name -> !name.isBlank()).toList();
+                        progress.skip(SKIP_BLANK, chunk.size() - names.size());
+                        if (names.isEmpty()) return;
+
+                        List<Activity> toDelete = activityRepository.findByNameIn(names);
+                        mandatoryCountService.deleteActivities(toDelete);
+                        progress.addWritten(toDelete.size());
+                    });
+
             // ✅ HEADER VALIDATION (only header name)
-            Row headerRow = sheet.getRow(0);
-            if (headerRow == null) {
-                return ResponseEntity.badRequest()
-                        .body("Missing header row in Excel file");
-            }
-    
-            String header = ExcelFileValidationUtil.getCellString(headerRow.getCell(0));
-            if (!"name".equalsIgnoreCase(header)) {
+            if (!result.isHeaderValid()) {
                 return ResponseEntity.badRequest()
-                        .body("Invalid header. Expected column: name");
+                        .body(result.getHeader().isEmpty()
+                                ? "Missing header row in Excel file"
+                                : "Invalid header. Expected column: name");
             }
-    
-            List<String> names = new ArrayList<>();
-    
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-                if (row == null) continue;
-    
-                String name = ExcelFileValidationUtil.getCellString(row.getCell(0));
-                if (!name.isBlank()) {
-                    names.add(name);
-                }
-            }
-    
-            if (names.isEmpty()) {
+
+            if (result.getTotalRows() == result.getSkipped(SKIP_BLANK)) {
                 return ResponseEntity.badRequest()
                         .body("No valid activity names found in file");
             }
-    
-            List<Activity> toDelete = activityRepository.findByNameIn(names);
-    
-            if (toDelete.isEmpty()) {
+
+            if (result.getWritten() == 0) {
                 return ResponseEntity.badRequest()
                         .body("No matching activities found");
             }
-    
-            activityRepository.deleteAll(toDelete);
-    
+
             return ResponseEntity.ok(
-                    "Deleted " + toDelete.size() + " activities successfully"
+                    "Deleted " + result.getWritten() + " activities successfully"
             );
-    
+
         } catch (Exception ex) {
             log.error("Bulk delete failed", ex);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -257,6 +261,7 @@ public class AdminManageActivitiesController {
         }
 
         Activity a = opt.get();
+        boolean wasMandatory = MandatoryCountService.isMandatory(a);
         a.setName(upd.getName());
         a.setDescription(upd.getDescription());
         a.setType(upd.getType());
@@ -266,15 +271,16 @@ public class AdminManageActivitiesController {
         a.setEnd_date(upd.getEnd_date());
         a.setPoints(upd.getPoints());
 
-        return ResponseEntity.ok(activityRepository.save(a));
+        return ResponseEntity.ok(mandatoryCountService.saveActivity(a, wasMandatory));
     }
 
     @DeleteMapping("/manage-activities/{id}")
     public ResponseEntity<?> deleteActivity(@PathVariable Long id) {
-        if (!activityRepository.existsById(id)) {
+        Optional<Activity> opt = activityRepository.findById(id);
+        if (opt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Not found");
         }
-        activityRepository.deleteById(id);
+        mandatoryCountService.deleteActivities(List.of(opt.get()));
         return ResponseEntity.ok("Deleted successfully");
     }
 }
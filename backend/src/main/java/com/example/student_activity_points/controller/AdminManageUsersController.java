@@ -2,30 +2,41 @@ package com.example.student_activity_points.controller;
 
 import com.example.student_activity_points.domain.Departments;
 import com.example.student_activity_points.domain.Fa;
+import com.example.student_activity_points.domain.PointsLedger;
 import com.example.student_activity_points.domain.Student;
+import com.example.student_activity_points.dto.StudentPointsDTO;
 import com.example.student_activity_points.dto.StudentWithFADTO;
 import com.example.student_activity_points.repository.DepartmentsRepository;
 import com.example.student_activity_points.repository.FARepository;
 import com.example.student_activity_points.repository.RequestsRepository;
+import com.example.student_activity_points.repository.StudentActivityRepository;
 import com.example.student_activity_points.repository.StudentRepository;
 import com.example.student_activity_points.util.ExcelFileValidationUtil;
 import com.example.student_activity_points.util.ExcelFileValidationUtil.ValidationResult;
+import com.example.student_activity_points.util.ExcelRow;
+import com.example.student_activity_points.service.AdminStudentListService;
+import com.example.student_activity_points.service.AnnouncementsService;
 import com.example.student_activity_points.service.ClamAvAntivirusService;
+import com.example.student_activity_points.service.ExcelIngestionService;
+import com.example.student_activity_points.service.ExcelIngestionService.IngestionResult;
+import com.example.student_activity_points.service.StudentPointsService;
+import com.example.student_activity_points.service.StudentPointsService.RebuildResult;
+import com.example.student_activity_points.security.AuthUser;
 
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.*;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.beans.factory.annotation.Value;
 
 import jakarta.transaction.Transactional;
 
-import java.io.InputStream;
 import java.util.*;
-import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,29 +57,73 @@ public class AdminManageUsersController {
     @Autowired
     private RequestsRepository requestsRepository;
 
+    @Autowired
+    private StudentActivityRepository studentActivityRepository;
+
     @Autowired
     private ClamAvAntivirusService antivirusService;
 
+    @Autowired
+    private ExcelIngestionService excelIngestionService;
+
+    @Autowired
+    private StudentPointsService studentPointsService;
+
+    @Autowired
+    private AdminStudentListService adminStudentListService;
+
+    @Autowired
+    private AnnouncementsService announcementsService;
+
     @Value("${antivirus.enabled:false}")
     private boolean antivirusEnabled;
 
     private static final Logger log = LoggerFactory.getLogger(AdminManageUsersController.class);
 
+    private AuthUser currentUser() {
+        return (AuthUser) SecurityContextHolder
+                .getContext()
+                .getAuthentication()
+                .getPrincipal();
+    }
+
+    // Skip reasons reported by the bulk upload endpoints
+    private static final String SKIP_DUPLICATE = "duplicate";
+    private static final String SKIP_INVALID_FA = "invalid FA";
+    private static final String SKIP_INVALID_DEPT = "invalid department";
+    private static final String SKIP_INVALID = "invalid";
+    private static final String SKIP_NOT_FOUND = "not found";
+
+    /**
+     * Students with their FA. Without page or size the whole matching list is returned
+     * as before; with either, one page plus totals.
+     */
     @GetMapping("/student")
-        public ResponseEntity<?> getStudents() {
+        public ResponseEntity<?> getStudents(
+                @RequestParam(required = false) String search,
+                @RequestParam(required = false) Integer did,
+                @RequestParam(required = false) Integer faid,
+                @RequestParam(required = false) Integer page,
+                @RequestParam(required = false) Integer size) {
             try {
-                List<Student> students = (List<Student>) studentRepository.findAll();
-
-                List<StudentWithFADTO> result = students.stream().map(student -> {
-                    Optional<Fa> faOpt = faRepository.findById((long) student.getFaid());
+                if (page == null && size == null) {
+                    return ResponseEntity.ok(adminStudentListService.list(search, did, faid));
+                }
 
-                    String faName = faOpt.map(Fa::getName).orElse(null);
-                    String faEmail = faOpt.map(Fa::getEmailID).orElse(null);
+                Page<StudentWithFADTO> result = adminStudentListService.page(search, did, faid,
+                        page == null ? 0 : page, size == null ? 50 : size);
 
-                    return new StudentWithFADTO(student, faName, faEmail);
-                }).toList();
+                Map<String, Object> response = new HashMap<>();
+                response.put("students", result.getContent());
+                response.put("page", result.getNumber());
+                response.put("size", result.getSize());
+                response.put("totalElements", result.getTotalElements());
+                response.put("totalPages", result.getTotalPages());
+                return ResponseEntity.ok(response);
 
-                return ResponseEntity.ok(result);
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body("page must be 0 or more and size between 1 and " + AdminStudentListService.MAX_PAGE_SIZE);
 
             } catch (Exception ex) {
                 log.error("Error loading students", ex);
@@ -77,6 +132,30 @@ public class AdminManageUsersController {
             }
         }
 
+    /** Full student list as a streamed JSON array, with the same filters as the list */
+    @GetMapping("/student/export")
+    public ResponseEntity<StreamingResponseBody> exportStudents(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Integer did,
+            @RequestParam(required = false) Integer faid) {
+
+        StreamingResponseBody body = out -> {
+            try {
+                int count = adminStudentListService.export(search, did, faid, out);
+                log.info("Exported {} students", count);
+            } catch (Exception ex) {
+                // Headers are already sent; the client sees a truncated array
+                log.error("Error exporting students", ex);
+                throw ex;
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"students.json\"")
+                .body(body);
+    }
+
     @GetMapping("/fa")
     public ResponseEntity<?> getFA() {
         try {
@@ -108,6 +187,8 @@ public class AdminManageUsersController {
             }
 
             Student savedStudent = studentRepository.save(student);
+            studentPointsService.recordNewStudents(List.of(savedStudent.getSid()),
+                    PointsLedger.Source.ADMIN_EDIT, currentUser().getEmail());
             log.info("Student added successfully: {}", student.getSid());
             return ResponseEntity.ok(savedStudent);
 
@@ -142,78 +223,81 @@ public class AdminManageUsersController {
                 "faid", "dept_points", "institute_points", "other_points"
         };
     
-        int skippedDuplicate = 0;
-        int skippedInvalidFa = 0;
-    
-        try (InputStream inputStream = file.getInputStream();
-             Workbook workbook = new XSSFWorkbook(inputStream)) {
-    
-            Sheet sheet = workbook.getSheetAt(0);
-    
-            if (!ExcelFileValidationUtil.validateHeaderRow(sheet.getRow(0), STUDENT_HEADERS)) {
+        // SIDs and emails already taken, by this file or the database
+        Set<String> seenSids = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        Set<String> seenEmails = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+        try {
+            IngestionResult result = excelIngestionService.ingest(file, STUDENT_HEADERS,
+                    row -> {
+                        if (!ExcelFileValidationUtil.isValidStudentRow(row)) {
+                            log.warn("Skipping invalid student row {}", row.getRowNumber());
+                            return null;
+                        }
+
+                        Student student = new Student();
+                        student.setSid(row.getString(0));
+                        student.setName(row.getString(1));
+                        student.setEmailID(row.getString(2));
+                        student.setDid(row.getInt(3));
+                        student.setFaid(row.getInt(4));
+                        student.setDeptPoints(row.getInt(5));
+                        student.setInstitutePoints(row.getInt(6));
+                        student.setOtherPoints(row.getInt(7));
+
+                        student.setActivityPoints(
+                                student.getDeptPoints()
+                                        + student.getInstitutePoints()
+                                        + student.getOtherPoints()
+                        );
+                        return student;
+                    },
+                    (chunk, progress) -> {
+                        seenSids.addAll(studentRepository.findExistingSids(
+                                chunk.stream().map(Student::getSid).toList()));
+                        seenEmails.addAll(studentRepository.findExistingEmails(
+                                chunk.stream().map(Student::getEmailID).toList()));
+                        Set<Long> validFaids = new HashSet<>(faRepository.findExistingIds(
+                                chunk.stream().map(st -> (long) st.getFaid()).distinct().toList()));
+
+                        List<Student> students = new ArrayList<>();
+                        for (Student student : chunk) {
+                            if (seenSids.contains(student.getSid()) || seenEmails.contains(student.getEmailID())) {
+                                log.warn("Skipping duplicate student {}", student.getSid());
+                                progress.skip(SKIP_DUPLICATE);
+                                continue;
+                            }
+
+                            // ✅ FA existence check
+                            if (!validFaids.contains((long) student.getFaid())) {
+                                log.warn("Skipping student {}: FAID {} not found", student.getSid(), student.getFaid());
+                                progress.skip(SKIP_INVALID_FA);
+                                continue;
+                            }
+
+                            seenSids.add(student.getSid());
+                            seenEmails.add(student.getEmailID());
+                            students.add(student);
+                        }
+
+                        excelIngestionService.persistAll(students);
+                        studentPointsService.recordNewStudents(
+                                students.stream().map(Student::getSid).toList(),
+                                PointsLedger.Source.IMPORT, file.getOriginalFilename());
+                        progress.addWritten(students.size());
+                    });
+
+            if (!result.isHeaderValid()) {
                 return ResponseEntity.badRequest()
                         .body("Invalid column order for student file.");
             }
-    
-            List<Student> students = new ArrayList<>();
-    
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-    
-                if (row == null) {
-                    ;
-                    continue;
-                }
-    
-                if (!ExcelFileValidationUtil.isValidStudentRow(row)) {
-                    log.warn("Skipping invalid student row {}", i + 1);
-                    ;
-                    continue;
-                }
-    
-                String sid = getCellString(row.getCell(0));
-                if (studentRepository.existsById(sid)) {
-                    log.warn("Skipping duplicate student {}", sid);
-                    skippedDuplicate++;
-                    continue;
-                }
-    
-                int faid = getIntCellValue(row, 4);
-    
-                // ✅ FA existence check
-                if (!faRepository.existsById((long) faid)) {
-                    log.warn("Skipping student {}: FAID {} not found", sid, faid);
-                    skippedInvalidFa++;
-                    continue;
-                }
-    
-                Student student = new Student();
-                student.setSid(sid);
-                student.setName(getCellString(row.getCell(1)));
-                student.setEmailID(getCellString(row.getCell(2)));
-                student.setDid(getIntCellValue(row, 3));
-                student.setFaid(faid);
-                student.setDeptPoints(getIntCellValue(row, 5));
-                student.setInstitutePoints(getIntCellValue(row, 6));
-                student.setOtherPoints(getIntCellValue(row, 7));
-    
-                student.setActivityPoints(
-                        student.getDeptPoints()
-                                + student.getInstitutePoints()
-                                + student.getOtherPoints()
-                );
-    
-                students.add(student);
-            }
-    
-            studentRepository.saveAll(students);
-    
+
             return ResponseEntity.ok(
-                    "Uploaded " + students.size() + " students | " +
-                    ", duplicates: " + skippedDuplicate +
-                    ", invalid FA: " + skippedInvalidFa
+                    "Uploaded " + result.getWritten() + " students | " +
+                    ", duplicates: " + result.getSkipped(SKIP_DUPLICATE) +
+                    ", invalid FA: " + result.getSkipped(SKIP_INVALID_FA)
             );
-    
+
         } catch (Exception ex) {
             log.error("Error uploading students", ex);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -257,67 +341,68 @@ public class AdminManageUsersController {
     
         String[] FA_HEADERS = { "name", "emailID", "DID" };
     
-        int skippedDuplicate = 0;
-        int skippedMissingDept = 0;
-    
-        try (InputStream is = file.getInputStream();
-             Workbook workbook = new XSSFWorkbook(is)) {
-    
-            Sheet sheet = workbook.getSheetAt(0);
-    
-            if (!ExcelFileValidationUtil.validateHeaderRow(sheet.getRow(0), FA_HEADERS)) {
+        Set<String> seenEmails = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+        try {
+            IngestionResult result = excelIngestionService.ingest(file, FA_HEADERS,
+                    row -> {
+                        if (!ExcelFileValidationUtil.isValidFaRow(row)) {
+                            log.warn("Skipping invalid FA row {}", row.getRowNumber());
+                            return null;
+                        }
+                        return row;
+                    },
+                    (chunk, progress) -> {
+                        seenEmails.addAll(faRepository.findExistingEmails(
+                                chunk.stream().map(row -> row.getString(1)).toList()));
+
+                        Map<Long, Departments> departments = new HashMap<>();
+                        deptRepository.findAllById(chunk.stream().map(row -> (long) row.getInt(2)).distinct().toList())
+                                .forEach(dept -> departments.put(dept.getDID(), dept));
+
+                        List<Fa> faList = new ArrayList<>();
+                        for (ExcelRow row : chunk) {
+                            String email = row.getString(1);
+
+                            if (seenEmails.contains(email)) {
+                                log.warn("Skipping duplicate FA {}", email);
+                                progress.skip(SKIP_DUPLICATE);
+                                continue;
+                            }
+
+                            int did = row.getInt(2);
+                            Departments dept = departments.get((long) did);
+
+                            if (dept == null) {
+                                log.warn("Skipping FA row {}: invalid department {}", row.getRowNumber(), did);
+                                progress.skip(SKIP_INVALID_DEPT);
+                                continue;
+                            }
+
+                            Fa fa = new Fa();
+                            fa.setName(row.getString(0));
+                            fa.setEmailID(email);
+                            fa.setDepartment(dept);
+
+                            seenEmails.add(email);
+                            faList.add(fa);
+                        }
+
+                        faRepository.saveAll(faList);
+                        progress.addWritten(faList.size());
+                    });
+
+            if (!result.isHeaderValid()) {
                 return ResponseEntity.badRequest()
                         .body("Invalid column order for FA file.");
             }
-    
-            List<Fa> faList = new ArrayList<>();
-    
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-                if (row == null) {
-                    ;
-                    continue;
-                }
-    
-                if (!ExcelFileValidationUtil.isValidFaRow(row)) {
-                    log.warn("Skipping invalid FA row {}", i + 1);
-                    ;
-                    continue;
-                }
-    
-                String email = getCellString(row.getCell(1));
-    
-                if (faRepository.existsByEmailID(email)) {
-                    log.warn("Skipping duplicate FA {}", email);
-                    skippedDuplicate++;
-                    continue;
-                }
-    
-                int did = getIntCellValue(row, 2);
-                Optional<Departments> deptOpt = deptRepository.findById((long) did);
-    
-                if (deptOpt.isEmpty()) {
-                    log.warn("Skipping FA row {}: invalid department {}", i + 1, did);
-                    skippedMissingDept++;
-                    continue;
-                }
-    
-                Fa fa = new Fa();
-                fa.setName(getCellString(row.getCell(0)));
-                fa.setEmailID(email);
-                fa.setDepartment(deptOpt.get());
-    
-                faList.add(fa);
-            }
-    
-            faRepository.saveAll(faList);
-    
+
             return ResponseEntity.ok(
-                    "Uploaded " + faList.size() + " FAs | " +
-                    ", duplicates: " + skippedDuplicate +
-                    ", invalid department: " + skippedMissingDept
+                    "Uploaded " + result.getWritten() + " FAs | " +
+                    ", duplicates: " + result.getSkipped(SKIP_DUPLICATE) +
+                    ", invalid department: " + result.getSkipped(SKIP_INVALID_DEPT)
             );
-    
+
         } catch (Exception ex) {
             log.error("Error uploading FA data", ex);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -349,6 +434,9 @@ public class AdminManageUsersController {
             }
 
             Student existingStudent = existingStudentOpt.get();
+            StudentPointsDTO before = new StudentPointsDTO(existingStudent.getSid(), existingStudent.getFaid(),
+                    existingStudent.getDeptPoints(), existingStudent.getInstitutePoints(),
+                    existingStudent.getOtherPoints());
 
             if (updatedStudent.getName() != null && !updatedStudent.getName().trim().isEmpty()) {
                 existingStudent.setName(updatedStudent.getName());
@@ -379,10 +467,18 @@ public class AdminManageUsersController {
                 existingStudent.setFaid(updatedStudent.getFaid());
             }
 
-            Student savedStudent = studentRepository.save(existingStudent);
+            Student savedStudent = studentPointsService.saveAdminEdit(existingStudent, before,
+                    currentUser().getEmail());
+            announcementsService.forgetStudent(id);
             log.info("Student updated successfully: {}", id);
             return ResponseEntity.ok(savedStudent);
 
+        } catch (OptimisticLockingFailureException ex) {
+            // Points were credited between our read and this save; overwriting would lose them
+            log.warn("Concurrent modification while updating student record: {}", id);
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Student record was modified concurrently, please reload and retry");
+
         } catch (Exception ex) {
             log.error("Error updating student record: {}", id, ex);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -399,8 +495,10 @@ public class AdminManageUsersController {
                         .body("Student record not found");
             }
 
+            studentPointsService.reverseStudents(List.of(id), currentUser().getEmail());
             requestsRepository.deleteBySid(id);
             studentRepository.deleteById(id);
+            announcementsService.forgetStudent(id);
             log.info("Student deleted successfully: {}", id);
             return ResponseEntity.ok("Student record deleted successfully");
 
@@ -411,6 +509,31 @@ public class AdminManageUsersController {
         }
     }
 
+    /**
+     * Recomputes a student's point totals from the points ledger
+     */
+    @PostMapping("/student/{id}/rebuild-points")
+    public ResponseEntity<?> rebuildStudentPoints(@PathVariable String id) {
+        try {
+            RebuildResult result = studentPointsService.rebuildStudent(id);
+            if (result == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body("Student record not found");
+            }
+
+            log.info("Student points rebuilt from ledger: {}", id);
+            return ResponseEntity.ok(Map.of(
+                    "before", result.getBefore(),
+                    "after", result.getAfter()
+            ));
+
+        } catch (Exception ex) {
+            log.error("Error rebuilding student points: {}", id, ex);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Unable to rebuild student points");
+        }
+    }
+
     @PostMapping("/students/bulk-delete")
     public ResponseEntity<?> deleteStudentsFromExcel(@RequestParam("file") MultipartFile file) {
 
@@ -426,54 +549,39 @@ public class AdminManageUsersController {
             return ResponseEntity.badRequest().body(validationResult.getErrorMessage());
         }
 
-        int deletedCount = 0;
-        int skippedCount = 0;
-
-        try (Workbook workbook = WorkbookFactory.create(file.getInputStream())) {
-
-            Sheet sheet = workbook.getSheetAt(0);
-            Row headerRow = sheet.getRow(0);
+        try {
+            IngestionResult result = excelIngestionService.ingest(file, new String[] { "emailid" },
+                    row -> row.getString(0),
+                    (chunk, progress) -> {
+                        List<String> emails = chunk.stream().filter(email -> !email.isEmpty()).toList();
+                        progress.skip(SKIP_INVALID, chunk.size() - emails.size());
+
+                        List<String> sids = emails.isEmpty()
+                                ? List.of()
+                                : studentRepository.findSidsByEmailIDIn(emails);
+                        if (!sids.isEmpty()) {
+                            studentPointsService.reverseStudents(sids, file.getOriginalFilename());
+                            studentActivityRepository.deleteBySidIn(sids);
+                            studentRepository.deleteBySidIn(sids);
+                            announcementsService.forgetStudents(sids);
+                        }
+                        progress.addWritten(sids.size());
+                        progress.skip(SKIP_NOT_FOUND, emails.size() - sids.size());
+                    });
 
             /* ================= HEADER VALIDATION ================= */
 
-            if (headerRow == null || headerRow.getCell(0) == null) {
+            if (!result.isHeaderValid()) {
                 return ResponseEntity.badRequest()
-                        .body("Header missing. Expected column: emailid");
-            }
-
-            String header = headerRow.getCell(0).getStringCellValue().trim();
-            if (!"emailid".equalsIgnoreCase(header)) {
-                return ResponseEntity.badRequest()
-                        .body("Invalid header. Expected column name: emailid");
-            }
-
-            /* ================= PROCESS ROWS ================= */
-
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-                if (row == null || row.getCell(0) == null) {
-                    skippedCount++;
-                    continue;
-                }
-
-                String email = row.getCell(0).getStringCellValue().trim();
-                if (email.isEmpty()) {
-                    skippedCount++;
-                    continue;
-                }
-
-                Optional<Student> studentOpt = studentRepository.findByEmailID(email);
-                if (studentOpt.isPresent()) {
-                    studentRepository.delete(studentOpt.get());
-                    deletedCount++;
-                } else {
-                    skippedCount++;
-                }
+                        .body(result.getHeader().isEmpty()
+                                ? "Header missing. Expected column: emailid"
+                                : "Invalid header. Expected column name: emailid");
             }
 
             return ResponseEntity.ok(
-                    "Deleted " + deletedCount +
-                    " students | Skipped " + skippedCount
+                    "Deleted " + result.getWritten() +
+                    " students | Skipped " +
+                    (result.getSkipped(SKIP_INVALID) + result.getSkipped(SKIP_NOT_FOUND))
             );
 
         } catch (Exception ex) {
@@ -483,29 +591,4 @@ public class AdminManageUsersController {
         }
     }
 
-    // Helper methods
-    private String getCellString(Cell cell) {
-        if (cell == null) return "";
-        if (cell.getCellType() == CellType.STRING) return cell.getStringCellValue().trim();
-        if (cell.getCellType() == CellType.NUMERIC) return String.valueOf((int) cell.getNumericCellValue());
-        return "";
-    }
-
-    private int getIntCellValue(Row row, int index) {
-        Cell cell = row.getCell(index);
-        if (cell == null) return 0;
-        if (cell.getCellType() == CellType.NUMERIC) {
-            return (int) cell.getNumericCellValue();
-        } else if (cell.getCellType() == CellType.STRING) {
-            try {
-                return Integer.parseInt(cell.getStringCellValue().trim());
-            } catch (NumberFormatException ex) {
-                return 0;
-            }
-        }
-        return 0;
-    }
-
-    
-    
 }
\ No newline at end of file
@@ -1,16 +1,17 @@
 package com.example.student_activity_points.controller;
 
 import com.example.student_activity_points.domain.Announcements;
-import com.example.student_activity_points.domain.Student;
 import com.example.student_activity_points.repository.AnnouncementsRepository;
-import com.example.student_activity_points.repository.StudentRepository;
 import com.example.student_activity_points.security.AuthUser;
+import com.example.student_activity_points.service.AnnouncementsService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.*;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,28 +30,32 @@ public class AnnouncementsController {
     }
 
     @Autowired
-    private StudentRepository studentRepository;
+    private AnnouncementsService announcementsService;
 
     @Autowired
     private AnnouncementsRepository announcementsRepository;
 
     private static final Logger log = LoggerFactory.getLogger(AnnouncementsController.class);
 
+    /**
+     * Announcements of the student's FA, served from the in-memory feed. With since (the
+     * date of the newest announcement the client already has), only newer ones are returned.
+     */
     @GetMapping("/announcements")
-    public ResponseEntity<?> getAnnouncements() {
+    public ResponseEntity<?> getAnnouncements(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date since) {
         String sid = null;
         try {
             sid = currentUser().getSid();
-            Optional<Student> student = studentRepository.findById(sid);
+            Optional<Integer> faid = announcementsService.findFaidOfStudent(sid);
 
-            if (student.isEmpty()) {
+            if (faid.isEmpty()) {
                 log.warn("Student not found: {}", sid);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body("Student not found");
             }
 
-            int faid = student.get().getFaid();
-            List<Announcements> announcements = announcementsRepository.findByFAID(faid);
+            List<Announcements> announcements = announcementsService.getAnnouncementsSince(faid.get(), since);
 
             log.debug("Retrieved {} announcements for student: {}", announcements.size(), sid);
             return ResponseEntity.ok(announcements);
@@ -67,15 +72,15 @@ public class AnnouncementsController {
         String sid = null;
         try {
             sid = currentUser().getSid();
-            Optional<Student> student = studentRepository.findById(sid);
+            Optional<Integer> studentFaid = announcementsService.findFaidOfStudent(sid);
 
-            if (student.isEmpty()) {
+            if (studentFaid.isEmpty()) {
                 log.warn("Student not found: {}", sid);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body("Student not found");
             }
 
-            int faid = student.get().getFaid();
+            int faid = studentFaid.get();
             Announcements announcement = announcementsRepository.findByAid(aid);
 
             if (announcement == null) {
@@ -9,6 +9,9 @@ import com.example.student_activity_points.security.JwtUtil;
 import com.example.student_activity_points.service.RefreshTokenService;
 import com.example.student_activity_points.service.CsrfTokenService;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -45,6 +48,9 @@ public class AuthController {
     @Autowired
     private CsrfTokenService csrfTokenService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private static final Logger log = LoggerFactory.getLogger(AuthController.class);
     private static final String GOOGLE_USERINFO_URL = "https://www.googleapis.com/oauth2/v3/userinfo";
 
@@ -135,6 +141,8 @@ public class AuthController {
     /* ================= GOOGLE TOKEN VERIFICATION ================= */
 
     private Map<String, Object> verifyGoogleToken(String accessToken) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
         try {
             RestTemplate restTemplate = new RestTemplate();
             HttpHeaders headers = new HttpHeaders();
@@ -149,16 +157,20 @@ public class AuthController {
             );
 
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
+                outcome = "success";
                 return response.getBody();
             }
             
             return null;
         } catch (HttpClientErrorException e) {
+            outcome = "rejected";
             log.error("Google token verification failed: {}", e.getMessage());
             return null;
         } catch (Exception e) {
             log.error("Error verifying Google token", e);
             return null;
+        } finally {
+            sample.stop(meterRegistry.timer("external.google.userinfo", "outcome", outcome));
         }
     }
 
@@ -4,6 +4,7 @@ import com.example.student_activity_points.domain.Announcements;
 import com.example.student_activity_points.repository.AnnouncementsRepository;
 import com.example.student_activity_points.repository.FARepository;
 import com.example.student_activity_points.security.AuthUser;
+import com.example.student_activity_points.service.AnnouncementsService;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
@@ -32,6 +33,9 @@ public class FaAnnouncementsController {
     @Autowired
     private FARepository faRepository;
 
+    @Autowired
+    private AnnouncementsService announcementsService;
+
     private static final Logger log = LoggerFactory.getLogger(FaAnnouncementsController.class);
 
     @GetMapping("/announcements")
@@ -39,7 +43,7 @@ public class FaAnnouncementsController {
         Long faid = null;
         try {
             faid = currentUser().getFaid();
-            List<Announcements> announcements = announcementsRepository.findByFAID(faid.intValue());
+            List<Announcements> announcements = announcementsService.getAnnouncementsByFAID(faid.intValue());
             log.debug("Retrieved {} announcements for FA: {}", announcements.size(), faid);
             return ResponseEntity.ok(announcements);
 
@@ -63,7 +67,8 @@ public class FaAnnouncementsController {
                         .body("Title is required");
             }
 
-            Announcements savedAnnouncement = announcementsRepository.save(announcement);
+            // Also notifies the FA's students and updates their feed
+            Announcements savedAnnouncement = announcementsService.post(announcement);
             log.info("Announcement created successfully by FA: {}", announcement.getFaid());
             return ResponseEntity.status(HttpStatus.CREATED).body(savedAnnouncement);
 
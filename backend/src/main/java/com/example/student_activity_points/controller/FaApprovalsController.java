@@ -1,26 +1,27 @@
 package com.example.student_activity_points.controller;
 
-import com.example.student_activity_points.domain.Activity;
 import com.example.student_activity_points.domain.Fa;
 import com.example.student_activity_points.domain.Requests;
 import com.example.student_activity_points.domain.Requests.Status;
-import com.example.student_activity_points.domain.Requests.Type;
 import com.example.student_activity_points.domain.Student;
 import com.example.student_activity_points.domain.StudentActivity;
-import com.example.student_activity_points.domain.StudentActivity.Validated;
-import com.example.student_activity_points.repository.ActivityRepository;
+import com.example.student_activity_points.dto.FaInboxRequestDTO;
 import com.example.student_activity_points.repository.FARepository;
 import com.example.student_activity_points.repository.RequestsRepository;
 import com.example.student_activity_points.repository.StudentActivityRepository;
 import com.example.student_activity_points.repository.StudentRepository;
+import com.example.student_activity_points.service.ProofStorageService;
+import com.example.student_activity_points.service.RequestApprovalService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,10 +43,16 @@ public class FaApprovalsController {
     private RequestsRepository requestRepository;
 
     @Autowired
-    private ActivityRepository activityRepository;
+    private ProofStorageService proofStorageService;
+
+    @Autowired
+    private RequestApprovalService requestApprovalService;
 
     private static final Logger log = LoggerFactory.getLogger(FaApprovalsController.class);
 
+    private static final int MAX_INBOX_PAGE_SIZE = 200;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @GetMapping("/get-Fa")
     public ResponseEntity<?> getFa(@RequestParam String sid) {
         try {
@@ -66,8 +73,18 @@ public class FaApprovalsController {
         }
     }
 
+    /**
+     * Request inbox for an FA, newest first.
+     * Without a limit every matching request is returned; with one, the page holds
+     * at most limit rows and X-Next-Cursor carries the rid to pass as cursor for the
+     * next page.
+     */
     @GetMapping("/details")
-    public ResponseEntity<?> getFaDetails(@RequestParam String email) {
+    public ResponseEntity<?> getFaDetails(
+            @RequestParam String email,
+            @RequestParam(required = false) Status status,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
             Optional<Fa> faOptional = faRepository.findByEmailID(email);
             
@@ -77,59 +94,48 @@ public class FaApprovalsController {
                         .body("FA not found");
             }
 
-            Fa fa = faOptional.get();
-            Long faId = fa.getFAID();
+            if (limit != null && (limit <= 0 || limit > MAX_INBOX_PAGE_SIZE)) {
+                return ResponseEntity.badRequest()
+                        .body("limit must be between 1 and " + MAX_INBOX_PAGE_SIZE);
+            }
 
-            // Get students under this FA
-            List<Student> myStudents = studentRepository.findByFAID(faId.intValue());
-            List<String> myStudentsIds = myStudents.stream()
-                    .map(Student::getSid)
-                    .collect(Collectors.toList());
+            Long faId = faOptional.get().getFAID();
 
-            // Get requests from FA's students
-            List<Long> myStudentRequestIds = requestRepository.findBySidIn(myStudentsIds).stream()
-                    .map(Requests::getRid)
-                    .collect(Collectors.toList());
+            // One extra row tells whether another page exists
+            List<FaInboxRequestDTO> rows = requestRepository.findFaInbox(
+                    faId.intValue(), status, cursor,
+                    limit == null ? Limit.unlimited() : Limit.of(limit + 1));
 
-            // Get full request details
-            List<Requests> finalRequests = StreamSupport.stream(
-                    requestRepository.findAllById(myStudentRequestIds).spliterator(), false)
-                    .collect(Collectors.toList());
+            HttpHeaders headers = new HttpHeaders();
+            if (limit != null && rows.size() > limit) {
+                rows = rows.subList(0, limit);
+                headers.add(NEXT_CURSOR_HEADER, String.valueOf(rows.get(limit - 1).getRid()));
+            }
 
             // Structure response
-            List<Map<String, Object>> responseList = new ArrayList<>();
-            for (Requests request : finalRequests) {
-                Optional<Student> studentOpt = studentRepository.findById(request.getSid());
-                
-                if (studentOpt.isEmpty()) {
-                    log.warn("Student not found for request: {}", request.getRid());
-                    continue;
-                }
-
+            List<Map<String, Object>> responseList = new ArrayList<>(rows.size());
+            for (FaInboxRequestDTO request : rows) {
                 Map<String, Object> response = new HashMap<>();
                 response.put("rid", request.getRid());
-                response.put("name", studentOpt.get().getName());
+                response.put("name", request.getName());
                 response.put("sid", request.getSid());
                 response.put("status", request.getStatus());
                 response.put("activity_name", request.getActivityName());
                 response.put("activity_date", request.getActivityDate());
                 response.put("points", request.getPoints());
+                response.put("has_proof", request.isHasProof());
 
                 // Send proof URL instead of raw bytes
-                if (request.getProof() != null) {
-                    response.put("proof", "/api/fa/requests/" + request.getRid() + "/proof");
-                } else {
-                    response.put("proof", null);
-                }
+                response.put("proof", request.isHasProof()
+                        ? "/api/fa/requests/" + request.getRid() + "/proof"
+                        : null);
 
                 response.put("type", request.getType());
                 responseList.add(response);
             }
 
             log.debug("Retrieved {} requests for FA: {}", responseList.size(), email);
-         
-
-                return ResponseEntity.ok(responseList);
+            return ResponseEntity.ok().headers(headers).body(responseList);
 
         } catch (Exception ex) {
             log.error("Error fetching FA details for: {}", email, ex);
@@ -150,22 +156,14 @@ public class FaApprovalsController {
             }
 
             Requests request = requestOpt.get();
-            byte[] proof = request.getProof();
 
-            if (proof == null) {
+            if (!hasProof(request.getProofKey())) {
                 log.warn("No proof available for request: {}", rid);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body("Proof not found");
             }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentLength(proof.length);
-            headers.setContentDisposition(ContentDisposition.inline()
-                    .filename("proof_" + rid + ".pdf")
-                    .build());
-
-            return new ResponseEntity<>(proof, headers, HttpStatus.OK);
+            return proofResponse(request.getProofKey(), "proof_" + rid + ".pdf");
 
         } catch (Exception ex) {
             log.error("Error fetching proof for request: {}", rid, ex);
@@ -186,22 +184,14 @@ public class FaApprovalsController {
             }
 
             StudentActivity studentActivity = studentActivityOpt.get();
-            byte[] proof = studentActivity.getProof();
 
-            if (proof == null) {
+            if (!hasProof(studentActivity.getProofKey())) {
                 log.warn("No proof available for student activity: sid={}, aid={}", sid, aid);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body("Proof not found");
             }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentLength(proof.length);
-            headers.setContentDisposition(ContentDisposition.inline()
-                    .filename("proof_" + sid + "_" + aid + ".pdf")
-                    .build());
-
-            return new ResponseEntity<>(proof, headers, HttpStatus.OK);
+            return proofResponse(studentActivity.getProofKey(), "proof_" + sid + "_" + aid + ".pdf");
 
         } catch (Exception ex) {
             log.error("Error fetching proof for student activity: sid={}, aid={}", sid, aid, ex);
@@ -258,93 +248,62 @@ public class FaApprovalsController {
                         .body("FA not found");
             }
 
-            Optional<Requests> requestOpt = requestRepository.findById(rid);
-            if (requestOpt.isEmpty()) {
-                log.warn("Request not found for approval: {}", rid);
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body("Request not found");
-            }
-
-            Requests req = requestOpt.get();
-            Optional<Student> studentOpt = studentRepository.findById(req.getSid());
-            
-            if (studentOpt.isEmpty()) {
-                log.error("Student not found for request: {}", rid);
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body("Student not found");
-            }
-
-            Student student = studentOpt.get();
-            Activity activityToLink;
-
-            // Check if activity already exists
-            Optional<Activity> activityOpt = activityRepository.findByName(req.getActivityName());
-
-            if (activityOpt.isPresent()) {
-                // Activity exists, link to it
-                activityToLink = activityOpt.get();
-
-                Optional<StudentActivity> existingRecordOpt = studentActivityRepository
-                        .findBySidAndActID(req.getSid(), activityToLink.getActID().intValue());
-
-                if (existingRecordOpt.isPresent()) {
-                    log.warn("Activity already approved for student: sid={}, actID={}", 
-                             req.getSid(), activityToLink.getActID());
+            RequestApprovalService.ApprovalResult result = requestApprovalService.approve(rid, points);
+            switch (result.getOutcome()) {
+                case REQUEST_NOT_FOUND:
+                    log.warn("Request not found for approval: {}", rid);
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body("Request not found");
+                case STUDENT_NOT_FOUND:
+                    log.error("Student not found for request: {}", rid);
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body("Student not found");
+                case ALREADY_ENROLLED:
+                    log.warn("Activity already approved for student: rid={}", rid);
                     return ResponseEntity.status(HttpStatus.CONFLICT)
                             .body("Activity already approved for this student");
-                }
-            } else {
-                // Create new activity
-                activityToLink = new Activity();
-                activityToLink.setName(req.getActivityName());
-                activityToLink.setDescription(req.getDescription());
-                activityToLink.setDate(req.getActivityDate());
-                activityToLink.setEnd_date(req.getActivityDate());
-                activityToLink.setMandatory(0);
-                activityToLink.setPoints(points);
-                activityToLink.setType(req.getType().toString());
-
-                activityToLink = activityRepository.save(activityToLink);
-                log.info("New activity created: {}", activityToLink.getName());
-            }
-
-            // Add record to StudentActivity
-            StudentActivity studentActivity = new StudentActivity();
-            studentActivity.setActID(activityToLink.getActID().intValue());
-            studentActivity.setSid(req.getSid());
-            studentActivity.setDate(new Date());
-            studentActivity.setProof(req.getProof());
-            studentActivity.setValidated(Validated.Yes);
-            studentActivity.setTitle(req.getActivityName());
-            studentActivity.setPoints(points);
-            studentActivity.setActivityType(req.getType().toString());
-
-            // Update student points based on activity type
-            if (req.getType() == Type.Institute) {
-                student.setInstitutePoints(student.getInstitutePoints() + points);
-                student.setActivityPoints(student.getActivityPoints()+points);
-            } else if (req.getType() == Type.Department) {
-                student.setDeptPoints(student.getDeptPoints() + points);
-                student.setActivityPoints(student.getActivityPoints()+points);;
-            } else if (req.getType() == Type.Other) {
-                student.setOtherPoints(student.getOtherPoints() + points);
-                student.setActivityPoints(student.getActivityPoints()+points);
+                case ALREADY_DECIDED:
+                    log.warn("Request already decided: rid={}", rid);
+                    return ResponseEntity.status(HttpStatus.CONFLICT)
+                            .body("Request has already been decided");
+                default:
+                    break;
             }
 
-            studentActivityRepository.save(studentActivity);
-            studentRepository.save(student);
-
-            req.setStatus(Status.Approved);
-            req.setDecisionDate(new Date());
-            requestRepository.save(req);
-
-            log.info("Request approved: rid={}, sid={}, points={}", rid, req.getSid(), points);
             return ResponseEntity.ok("Successfully approved");
 
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent approval credited the same request first
+            log.warn("Duplicate approval rejected: rid={}", rid);
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Request has already been decided");
         } catch (Exception ex) {
             log.error("Error approving request: {}", rid, ex);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Unable to approve request");
         }
     }
-}
\ No newline at end of file
+
+    private boolean hasProof(String proofKey) {
+        return proofKey != null && proofStorageService.exists(proofKey);
+    }
+
+    /**
+     * Serves a stored proof as a Resource so it is streamed from disk rather than
+     * buffered. Spring answers Range requests with 206 partial content, and since
+     * the key is the content hash it doubles as a strong ETag: a matching
+     * If-None-Match gets 304 with no body.
+     */
+    private ResponseEntity<Resource> proofResponse(String proofKey, String filename) throws IOException {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .eTag("\"" + proofKey + "\"")
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                        .filename(filename)
+                        .build()
+                        .toString())
+                .body(proofStorageService.load(proofKey));
+    }
+}
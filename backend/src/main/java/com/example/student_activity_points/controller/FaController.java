@@ -75,6 +75,20 @@ public class FaController {
         }
     }
     
+    @GetMapping("/points-summary")
+    public ResponseEntity<?> getPointsSummary() {
+        Long faid = null;
+        try {
+            faid = currentUser().getFaid();
+            return ResponseEntity.ok(faService.getPointsSummary(faid));
+
+        } catch (Exception ex) {
+            log.error("Error fetching points summary for FA: {}", faid, ex);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Unable to fetch points summary");
+        }
+    }
+
     @GetMapping("/departments/{did}")
     public ResponseEntity<?> getDepartmentById(@PathVariable Integer did) {
         try {
@@ -5,6 +5,8 @@ import com.example.student_activity_points.domain.Departments;
 import com.example.student_activity_points.repository.ActivityRepository;
 import com.example.student_activity_points.repository.DepartmentsRepository;
 import com.example.student_activity_points.repository.ValidationRepository;
+import com.example.student_activity_points.service.ActivityCatalogService;
+import com.example.student_activity_points.service.MandatoryCountService;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -23,19 +25,26 @@ public class FaManageActivitiesController {
     @Autowired
     private ActivityRepository activityRepository;
 
+    @Autowired
+    private ActivityCatalogService activityCatalogService;
+
     @Autowired
     private DepartmentsRepository departmentsRepository;
 
     @Autowired
     private ValidationRepository validationRepository;
 
+    @Autowired
+    private MandatoryCountService mandatoryCountService;
+
     private static final Logger log = LoggerFactory.getLogger(FaManageActivitiesController.class);
 
     @GetMapping("/manage-activities")
     public ResponseEntity<?> getActivities() {
         try {
-            List<Activity> activities = (List<Activity>) activityRepository.findAll();
-            
+            List<Activity> activities = activityCatalogService.findAll();
+            Set<Long> uploadedActIds = new HashSet<>(validationRepository.findUploadedActivityIds());
+
             List<Map<String, Object>> response = new ArrayList<>();
             for (Activity activity : activities) {
                 Map<String, Object> map = new HashMap<>();
@@ -49,9 +58,7 @@ public class FaManageActivitiesController {
                 map.put("type", activity.getType());
                 map.put("mandatory", activity.getMandatory());
                 
-                // Check if attendance is uploaded for this activity
-                boolean attendanceUploaded = !validationRepository.findByActivity(activity).isEmpty();
-                map.put("attendanceUploaded", attendanceUploaded);
+                map.put("attendanceUploaded", uploadedActIds.contains(activity.getActID()));
                 
                 response.add(map);
             }
@@ -123,6 +130,7 @@ public class FaManageActivitiesController {
             }
 
             Activity existingActivity = existingActivityOpt.get();
+            boolean wasMandatory = MandatoryCountService.isMandatory(existingActivity);
             existingActivity.setName(updatedActivity.getName());
             existingActivity.setType(updatedActivity.getType());
             existingActivity.setMandatory(updatedActivity.getMandatory());
@@ -132,7 +140,7 @@ public class FaManageActivitiesController {
             existingActivity.setEnd_date(updatedActivity.getEnd_date());
             existingActivity.setPoints(updatedActivity.getPoints());
 
-            Activity savedActivity = activityRepository.save(existingActivity);
+            Activity savedActivity = mandatoryCountService.saveActivity(existingActivity, wasMandatory);
             log.info("Activity updated successfully: {}", id);
             return ResponseEntity.ok(savedActivity);
 
@@ -151,13 +159,14 @@ public class FaManageActivitiesController {
     @DeleteMapping("/manage-activities/{id}")
     public ResponseEntity<?> deleteActivity(@PathVariable Long id) {
         try {
-            if (!activityRepository.existsById(id)) {
+            Optional<Activity> activityOpt = activityRepository.findById(id);
+            if (activityOpt.isEmpty()) {
                 log.warn("Activity not found for deletion: {}", id);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body("Activity not found");
             }
 
-            activityRepository.deleteById(id);
+            mandatoryCountService.deleteActivities(List.of(activityOpt.get()));
             log.info("Activity deleted successfully: {}", id);
             return ResponseEntity.ok("Activity deleted successfully");
 
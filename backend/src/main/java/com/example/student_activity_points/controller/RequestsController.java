@@ -4,7 +4,9 @@ import com.example.student_activity_points.domain.Requests;
 import com.example.student_activity_points.repository.RequestsRepository;
 import com.example.student_activity_points.security.AuthUser;
 import com.example.student_activity_points.service.ClamAvAntivirusService;
+import com.example.student_activity_points.service.ProofStorageService;
 import com.example.student_activity_points.dto.CreateRequestDTO;
+import com.example.student_activity_points.dto.RequestSummaryDTO;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
@@ -22,6 +24,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
@@ -48,6 +51,9 @@ public class RequestsController {
     @Autowired
     private ClamAvAntivirusService antivirusService;
 
+    @Autowired
+    private ProofStorageService proofStorageService;
+
     private static final Logger log = LoggerFactory.getLogger(RequestsController.class);
     private static final long MAX_FILE_SIZE = 1024 * 1024; // 1MB
     
@@ -57,7 +63,7 @@ public class RequestsController {
     @GetMapping
     public ResponseEntity<?> getAllRequests() {
         try {
-            List<Requests> requests = (List<Requests>) requestsRepository.findAll();
+            List<RequestSummaryDTO> requests = requestsRepository.findAllSummaries();
             log.debug("Retrieved {} requests", requests.size());
             return ResponseEntity.ok(requests);
 
@@ -73,7 +79,7 @@ public class RequestsController {
         String sid = null;
         try {
             sid = currentUser().getSid();
-            List<Requests> requests = requestsRepository.findBySid(sid);
+            List<RequestSummaryDTO> requests = requestsRepository.findSummariesBySid(sid);
             log.debug("Retrieved {} requests for student: {}", requests.size(), sid);
             return ResponseEntity.ok(requests);
 
@@ -105,57 +111,66 @@ public class RequestsController {
             ResponseEntity<?> fileValidation = validateFile(proof);
             if (fileValidation != null) return fileValidation;
 
-            if (!"application/pdf".equalsIgnoreCase(proof.getContentType())) {
-                return ResponseEntity.badRequest()
-                        .body(createErrorResponse("Only PDF files are allowed"));
+            // Single read of the upload: hashed and staged to storage, head kept for sniffing.
+            // The scan then reads the staged copy, or is skipped for an already cleared hash.
+            ProofStorageService.StagedProof staged;
+            try (InputStream in = proof.getInputStream()) {
+                staged = proofStorageService.stage(in);
             }
 
-            if (!antivirusService.isFileSafe(proof)) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(createErrorResponse("File failed security scan"));
-            }
+            try (staged) {
+                if (!isPdf(staged.getHead())) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                            .body(createErrorResponse("File is not a valid PDF"));
+                }
 
-            // -------- Date parsing --------
-            Date activityDate;
-            try {
-                LocalDate localDate = LocalDate.parse(dto.getActivityDate());
-                activityDate = Date.from(
-                        localDate.atStartOfDay(ZoneId.systemDefault()).toInstant()
-                );
+                if (!antivirusService.isSafe(staged, staged.getKey(), proof.getOriginalFilename())) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                            .body(createErrorResponse("File failed security scan"));
+                }
 
-                if (activityDate.after(new Date())) {
+                // -------- Date parsing --------
+                Date activityDate;
+                try {
+                    LocalDate localDate = LocalDate.parse(dto.getActivityDate());
+                    activityDate = Date.from(
+                            localDate.atStartOfDay(ZoneId.systemDefault()).toInstant()
+                    );
+
+                    if (activityDate.after(new Date())) {
+                        return ResponseEntity.badRequest()
+                                .body(createErrorResponse("Activity date cannot be in the future"));
+                    }
+                } catch (DateTimeParseException e) {
                     return ResponseEntity.badRequest()
-                            .body(createErrorResponse("Activity date cannot be in the future"));
+                            .body(createErrorResponse("Invalid date format (YYYY-MM-DD expected)"));
                 }
-            } catch (DateTimeParseException e) {
-                return ResponseEntity.badRequest()
-                        .body(createErrorResponse("Invalid date format (YYYY-MM-DD expected)"));
-            }
 
-            // -------- Enum parsing --------
-            Requests.Type type;
-            try {
-                type = Requests.Type.valueOf(dto.getType());
-            } catch (IllegalArgumentException e) {
-                return ResponseEntity.badRequest()
-                        .body(createErrorResponse("Invalid activity type"));
-            }
+                // -------- Enum parsing --------
+                Requests.Type type;
+                try {
+                    type = Requests.Type.valueOf(dto.getType());
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.badRequest()
+                            .body(createErrorResponse("Invalid activity type"));
+                }
 
-            // -------- Build entity --------
-            Requests request = new Requests();
-            request.setSid(sid);
-            request.setStatus(Requests.Status.Pending);
-            request.setDate(new Date());
-            request.setDecisionDate(new Date());
-            request.setActivityName(sanitizeInput(dto.getActivityName()));
-            request.setDescription(sanitizeInput(dto.getDescription()));
-            request.setActivityDate(activityDate);
-            request.setType(type);
-            request.setPoints(dto.getPoints());
-            request.setProof(proof.getBytes());
-
-            Requests saved = requestsRepository.save(request);
-            return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+                // -------- Build entity --------
+                Requests request = new Requests();
+                request.setSid(sid);
+                request.setStatus(Requests.Status.Pending);
+                request.setDate(new Date());
+                request.setDecisionDate(new Date());
+                request.setActivityName(sanitizeInput(dto.getActivityName()));
+                request.setDescription(sanitizeInput(dto.getDescription()));
+                request.setActivityDate(activityDate);
+                request.setType(type);
+                request.setPoints(dto.getPoints());
+                request.setProofKey(staged.commit());
+
+                Requests saved = requestsRepository.save(request);
+                return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+            }
 
         } catch (DataIntegrityViolationException ex) {
             log.warn("Duplicate/invalid request for student {}", sid, ex);
@@ -253,7 +268,7 @@ public class RequestsController {
 
         // Validate content type
         String contentType = file.getContentType();
-        if (!"application/pdf".equals(contentType)) {
+        if (!"application/pdf".equalsIgnoreCase(contentType)) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(createErrorResponse("Only PDF files are allowed"));
         }
@@ -271,23 +286,16 @@ public class RequestsController {
                     .body(createErrorResponse("Invalid file extension"));
         }
 
-        // Validate PDF magic bytes
-        try {
-            byte[] fileBytes = file.getBytes();
-            if (fileBytes.length < 5 || 
-                fileBytes[0] != 0x25 || fileBytes[1] != 0x50 || 
-                fileBytes[2] != 0x44 || fileBytes[3] != 0x46) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(createErrorResponse("File is not a valid PDF"));
-            }
-        } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(createErrorResponse("Error reading file"));
-        }
-
         return null; // No validation errors
     }
 
+    // ✅ PDF magic bytes ("%PDF"), checked on the head of the staged upload
+    private boolean isPdf(byte[] head) {
+        return head.length >= 5 &&
+               head[0] == 0x25 && head[1] == 0x50 &&
+               head[2] == 0x44 && head[3] == 0x46;
+    }
+
     // ✅ Helper method to sanitize text input (XSS prevention)
     private String sanitizeInput(String input) {
         if (input == null || input.isEmpty()) {
@@ -3,13 +3,19 @@ package com.example.student_activity_points.controller;
 import com.example.student_activity_points.domain.Announcements;
 import com.example.student_activity_points.domain.Student;
 import com.example.student_activity_points.domain.StudentActivity;
+import com.example.student_activity_points.dto.StudentListQuery;
 import com.example.student_activity_points.dto.StudentWithMandatoryDTO;
 import com.example.student_activity_points.security.AuthUser;
+import com.example.student_activity_points.service.StudentListQueryService;
+import com.example.student_activity_points.service.StudentListQueryService.StudentListPage;
 import com.example.student_activity_points.service.StudentService;
 
+import jakarta.validation.Valid;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
@@ -32,6 +38,9 @@ public class StudentController {
     @Autowired
     private StudentService studentService;
 
+    @Autowired
+    private StudentListQueryService studentListQueryService;
+
     private static final Logger log = LoggerFactory.getLogger(StudentController.class);
 
     @GetMapping("student")
@@ -225,6 +234,46 @@ public class StudentController {
         }
     }
 
+    /**
+     * Composable student list for the FA: name search, point bounds, mandatory
+     * count, sort key/direction and keyset pagination in one query.
+     */
+    @GetMapping("fa/student-list/query")
+    public ResponseEntity<?> queryStudents(
+            @Valid @ModelAttribute StudentListQuery query,
+            BindingResult bindingResult) {
+
+        if (bindingResult.hasErrors()) {
+            Map<String, String> errors = new HashMap<>();
+            bindingResult.getFieldErrors()
+                    .forEach(err -> errors.put(err.getField(), err.getDefaultMessage()));
+            return ResponseEntity.badRequest().body(errors);
+        }
+
+        Long FAID = null;
+        try {
+            FAID = currentUser().getFaid();
+            StudentListPage page = studentListQueryService.query(FAID.intValue(), query);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("students", page.getStudents());
+            response.put("nextCursor", page.getNextCursor());
+
+            log.debug("Query returned {} students for FA: {}", page.getStudents().size(), FAID);
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException ex) {
+            log.warn("Invalid student list query for FA: {}: {}", FAID, ex.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Invalid query or cursor");
+
+        } catch (Exception ex) {
+            log.error("Error querying students for FA: {}", FAID, ex);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Unable to fetch students");
+        }
+    }
+
     @GetMapping("fa/student-list/search")
     public ResponseEntity<?> searchStudents(
             @RequestParam String name) {
@@ -1,7 +1,7 @@
 package com.example.student_activity_points.controller;
 
 import com.example.student_activity_points.domain.Activity;
-import com.example.student_activity_points.repository.ActivityRepository;
+import com.example.student_activity_points.service.ActivityCatalogService;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
@@ -17,7 +17,7 @@ import org.slf4j.LoggerFactory;
 public class StudentRequestManageActivitiesController {
     
     @Autowired
-    private ActivityRepository activityRepository;
+    private ActivityCatalogService activityCatalogService;
     
     private static final Logger log = LoggerFactory.getLogger(StudentRequestManageActivitiesController.class);
     
@@ -30,9 +30,9 @@ public class StudentRequestManageActivitiesController {
 
             if (mandatory != null) {
                 Integer mandatoryValue = "yes".equalsIgnoreCase(mandatory) ? 1 : 0;
-                activities = activityRepository.findByMandatory(mandatoryValue);
+                activities = activityCatalogService.findByMandatory(mandatoryValue);
             } else {
-                activities = (List<Activity>) activityRepository.findAll();
+                activities = activityCatalogService.findAll();
             }
 
             List<Map<String, Object>> response = new ArrayList<>();
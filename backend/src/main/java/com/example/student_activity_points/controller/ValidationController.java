@@ -1,14 +1,14 @@
 package com.example.student_activity_points.controller;
 
 import com.example.student_activity_points.domain.Activity;
-import com.example.student_activity_points.domain.Student;
-import com.example.student_activity_points.domain.StudentActivity;
-import com.example.student_activity_points.domain.StudentActivityId;
 import com.example.student_activity_points.repository.ActivityRepository;
 import com.example.student_activity_points.repository.StudentActivityRepository;
 import com.example.student_activity_points.repository.StudentRepository;
+import com.example.student_activity_points.service.AttendanceFinalizationService;
+import com.example.student_activity_points.service.AttendanceFinalizationService.FinalizationResult;
 import com.example.student_activity_points.service.ClamAvAntivirusService;
 import com.example.student_activity_points.util.ExcelFileValidationUtil;
+import com.example.student_activity_points.util.StreamingExcelReader;
 import com.example.student_activity_points.util.ExcelFileValidationUtil.ValidationResult;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,13 +18,9 @@ import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-
-import jakarta.transaction.Transactional;
-
 import java.io.InputStream;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,11 +41,17 @@ public class ValidationController {
     @Autowired
     private ClamAvAntivirusService antivirusService;
 
+    @Autowired
+    private AttendanceFinalizationService attendanceFinalizationService;
+
     @Value("${antivirus.enabled:false}")
     private boolean antivirusEnabled;
 
     private static final Logger log = LoggerFactory.getLogger(ValidationController.class);
 
+    // Keeps IN lists well below driver/packet limits
+    private static final int SID_CHUNK_SIZE = 1000;
+
     @PostMapping("/check-attendance/{actid}")
     public ResponseEntity<?> checkAttendance(
             @RequestParam("file") MultipartFile file,
@@ -80,70 +82,72 @@ public class ValidationController {
 
             Activity activity = activityOpt.get();
 
-            try (InputStream inputStream = file.getInputStream();
-                 Workbook workbook = new XSSFWorkbook(inputStream)) {
-
-                Sheet sheet = workbook.getSheetAt(0);
-                
-                int totalRows = 0;
-                List<String> validSids = new ArrayList<>();
-                List<String> skippedRows = new ArrayList<>();
-
-                // Skip header row (start from row 1)
-                for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                    Row row = sheet.getRow(i);
-                    if (row == null) continue;
-                    
-                    totalRows++;
-
-                    Cell cell = row.getCell(0);
-                    if (cell == null) {
-                        skippedRows.add("Row " + (i + 1) + " → Empty student ID");
-                        continue;
-                    }
-
-                    String sid = getCellString(cell).trim();
-                    
-                    if (sid.isEmpty()) {
-                        skippedRows.add("Row " + (i + 1) + " → Empty student ID");
-                        continue;
-                    }
-
-                    Optional<Student> studentOpt = studentRepository.findById(sid);
-
-                    if (studentOpt.isEmpty()) {
-                        skippedRows.add("Row " + (i + 1) + " → Student not found: " + sid);
-                        continue;
-                    }
-
-                    // Check for duplicates
-                    StudentActivityId saId = new StudentActivityId();
-                    saId.setActID(actid.intValue());
-                    saId.setSid(sid);
-                    
-                    if (studentActivityRepository.existsById(saId)) {
-                        skippedRows.add("Row " + (i + 1) + " → Already enrolled: " + sid);
-                        continue;
-                    }
-
-                    // Add to valid list
-                    validSids.add(sid);
+            // Single streaming pass: remember each row's SID, resolve them in bulk afterwards
+            Map<Integer, String> rowSids = new LinkedHashMap<>();
+            try (InputStream inputStream = file.getInputStream()) {
+                StreamingExcelReader.read(inputStream, (rowIndex, cells) -> {
+                    // Skip header row
+                    if (rowIndex == 0) return;
+                    String sid = cells.isEmpty() || cells.get(0) == null ? "" : cells.get(0);
+                    rowSids.put(rowIndex, sid);
+                });
+            }
+
+            List<String> distinctSids = rowSids.values().stream()
+                    .filter(sid -> !sid.isEmpty())
+                    .distinct()
+                    .collect(Collectors.toList());
+
+            // SID comparisons follow the case-insensitive column collation
+            Set<String> existing = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+            Set<String> enrolled = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+            for (int from = 0; from < distinctSids.size(); from += SID_CHUNK_SIZE) {
+                List<String> chunk = distinctSids.subList(from, Math.min(from + SID_CHUNK_SIZE, distinctSids.size()));
+                existing.addAll(studentRepository.findExistingSids(chunk));
+                enrolled.addAll(studentActivityRepository.findEnrolledSids(actid.intValue(), chunk));
+            }
+
+            int totalRows = rowSids.size();
+            List<String> validSids = new ArrayList<>();
+            List<String> skippedRows = new ArrayList<>();
+
+            for (Map.Entry<Integer, String> entry : rowSids.entrySet()) {
+                int rowNumber = entry.getKey() + 1;
+                String sid = entry.getValue();
+
+                if (sid.isEmpty()) {
+                    skippedRows.add("Row " + rowNumber + " → Empty student ID");
+                    continue;
+                }
+
+                if (!existing.contains(sid)) {
+                    skippedRows.add("Row " + rowNumber + " → Student not found: " + sid);
+                    continue;
                 }
 
-                // Prepare result with activity details for frontend display
-                Map<String, Object> result = new HashMap<>();
-                result.put("totalRows", totalRows);
-                result.put("validSids", validSids); // Just send student IDs
-                result.put("skippedRows", skippedRows);
-                result.put("activityName", activity.getName());
-                result.put("points", activity.getPoints());
-                result.put("category", activity.getType());
-
-                log.info("Attendance check completed: {} valid rows, {} skipped rows for activity: {}", 
-                         validSids.size(), skippedRows.size(), actid);
-                return ResponseEntity.ok(result);
+                // Check for duplicates
+                if (enrolled.contains(sid)) {
+                    skippedRows.add("Row " + rowNumber + " → Already enrolled: " + sid);
+                    continue;
+                }
+
+                // Add to valid list
+                validSids.add(sid);
             }
 
+            // Prepare result with activity details for frontend display
+            Map<String, Object> result = new HashMap<>();
+            result.put("totalRows", totalRows);
+            result.put("validSids", validSids); // Just send student IDs
+            result.put("skippedRows", skippedRows);
+            result.put("activityName", activity.getName());
+            result.put("points", activity.getPoints());
+            result.put("category", activity.getType());
+
+            log.info("Attendance check completed: {} valid rows, {} skipped rows for activity: {}", 
+                     validSids.size(), skippedRows.size(), actid);
+            return ResponseEntity.ok(result);
+
         } catch (Exception ex) {
             String errorId = UUID.randomUUID().toString();
             log.error("Error ID {}: Error processing attendance file for activity: {}", errorId, actid, ex);
@@ -152,16 +156,6 @@ public class ValidationController {
         }
     }
 
-    // Helper method
-    private String getCellString(Cell cell) {
-        if (cell == null) return "";
-        if (cell.getCellType() == CellType.STRING) return cell.getStringCellValue().trim();
-        if (cell.getCellType() == CellType.NUMERIC) return String.valueOf((long) cell.getNumericCellValue());
-        return "";
-    }
-
-
-    @Transactional
     @PostMapping("/finalize-attendance/{actid}")
     public ResponseEntity<?> finalizeAttendance(
             @PathVariable Long actid, 
@@ -202,94 +196,9 @@ public class ValidationController {
                         .body("Activity has invalid points configuration");
             }
 
-            // Mark activity as uploaded
-            activity.setIsuploaded(true);
-            activityRepository.save(activity);
-
-            int points = activity.getPoints();
-            String category = activity.getType();
-
-            int successCount = 0;
-            List<String> skipped = new ArrayList<>();
-
-            for (String sid : validSids) {
-                // Validate SID
-                if (sid == null || sid.isBlank()) {
-                    skipped.add("Invalid student ID: empty or null");
-                    continue;
-                }
-
-                // Get student
-                Optional<Student> studentOpt = studentRepository.findById(sid);
-                if (studentOpt.isEmpty()) {
-                    skipped.add("Student not found: " + sid);
-                    continue;
-                }
-
-                Student student = studentOpt.get();
-
-                // Check for duplicate StudentActivity
-                StudentActivityId saId = new StudentActivityId();
-                saId.setActID(actid.intValue());
-                saId.setSid(sid);
-                
-                if (studentActivityRepository.existsById(saId)) {
-                    skipped.add("Already enrolled: " + sid);
-                    continue;
-                }
-
-                // Create and populate StudentActivity
-                StudentActivity studentActivity = new StudentActivity();
-                studentActivity.setActivity(activity);
-                studentActivity.setStudent(student);
-                studentActivity.setActID(actid.intValue());
-                studentActivity.setSid(sid);
-                studentActivity.setPoints(points);
-                studentActivity.setValidated(StudentActivity.Validated.Yes);
-                studentActivity.setDate(new Date());
-                studentActivity.setTitle(activity.getName());
-                studentActivity.setActivityType(activity.getType());
-
-                try {
-                    studentActivityRepository.save(studentActivity);
-                } catch (DataIntegrityViolationException ex) {
-                    log.warn("Data integrity violation for student activity: actID={}, sid={}", actid, sid, ex);
-                    skipped.add("Database error for student: " + sid);
-                    continue;
-                }
-
-                // Update student's point totals based on category
-                switch (category) {
-                    case "Institute":
-                        student.setInstitutePoints(student.getInstitutePoints() + points);
-                        break;
-                    case "Department":
-                        student.setDeptPoints(student.getDeptPoints() + points);
-                        break;
-                    case "Other":
-                        student.setOtherPoints(student.getOtherPoints() + points);
-                        break;
-                    default:
-                        log.warn("Unknown category for activity {}: {}", actid, category);
-                        skipped.add("Unknown category for student " + sid);
-                        continue;
-                }
-
-                // Update total activity_points
-                int newActivityPoints = student.getDeptPoints() + 
-                                      student.getInstitutePoints() + 
-                                      student.getOtherPoints();
-                student.setActivityPoints(newActivityPoints);
-
-                // Save student
-                try {
-                    studentRepository.save(student);
-                    successCount++;
-                } catch (Exception ex) {
-                    log.error("Error saving student {}: {}", sid, ex.getMessage(), ex);
-                    skipped.add("Failed to update points for student: " + sid);
-                }
-            }
+            FinalizationResult result = attendanceFinalizationService.finalizeAttendance(activity, validSids);
+            int successCount = result.getSuccessCount();
+            List<String> skipped = result.getSkipped();
 
             String msg = "Successfully updated " + successCount + " students. Skipped: " + skipped.size();
             Map<String, Object> resp = new HashMap<>();
@@ -5,9 +5,14 @@ import java.util.Date;
 import java.util.List;
 import java.util.ArrayList; 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.example.student_activity_points.service.ActivityCatalogInvalidator;
 
 @Entity
-@Table(name = "Activity")
+@Table(name = "Activity", indexes = {
+        @Index(name = "idx_activity_name", columnList = "name"),
+        @Index(name = "idx_activity_mandatory", columnList = "mandatory")
+})
+@EntityListeners(ActivityCatalogInvalidator.class)
 public class Activity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
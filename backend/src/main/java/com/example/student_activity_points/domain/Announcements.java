@@ -3,7 +3,8 @@ import jakarta.persistence.*;
 import java.util.Date;
 
 @Entity
-@Table(name = "announcements")
+@Table(name = "announcements",
+       indexes = @Index(name = "idx_announcements_faid_date", columnList = "FAID, date DESC"))
 public class Announcements {
     
     @Id
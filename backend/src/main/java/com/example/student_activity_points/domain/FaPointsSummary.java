@@ -0,0 +1,41 @@
+package com.example.student_activity_points.domain;
+
+import jakarta.persistence.*;
+
+/**
+ * Running point totals over all students of one FA, kept in step with the
+ * ledger by PointsLedgerService so FA-level figures never need a Student scan.
+ */
+@Entity
+@Table(name = "fa_points_summary")
+public class FaPointsSummary {
+
+    @Id
+    @Column(name = "FAID")
+    private Long faid;
+
+    @Column(name = "dept_points", nullable = false)
+    private long deptPoints;
+
+    @Column(name = "institute_points", nullable = false)
+    private long institutePoints;
+
+    @Column(name = "other_points", nullable = false)
+    private long otherPoints;
+
+    public FaPointsSummary() {}
+
+    public FaPointsSummary(Long faid, long deptPoints, long institutePoints, long otherPoints) {
+        this.faid = faid;
+        this.deptPoints = deptPoints;
+        this.institutePoints = institutePoints;
+        this.otherPoints = otherPoints;
+    }
+
+    // Getters
+    public Long getFaid() { return faid; }
+    public long getDeptPoints() { return deptPoints; }
+    public long getInstitutePoints() { return institutePoints; }
+    public long getOtherPoints() { return otherPoints; }
+    public long getActivityPoints() { return deptPoints + institutePoints + otherPoints; }
+}
@@ -0,0 +1,35 @@
+package com.example.student_activity_points.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+
+/**
+ * Proof columns of the Requests table, used only by ProofMigrationJob to move
+ * the old LONGBLOB proofs into ProofStorageService.
+ */
+@Entity
+@Table(name = "Requests")
+public class LegacyRequestProof {
+
+    @Id
+    @Column(name = "rid")
+    private Long rid;
+
+    @Lob
+    @Column(name = "proof", columnDefinition = "LONGBLOB")
+    private byte[] proof;
+
+    @Column(name = "proof_key", length = 64)
+    private String proofKey;
+
+    public Long getRid() { return rid; }
+
+    public byte[] getProof() { return proof; }
+    public void setProof(byte[] proof) { this.proof = proof; }
+
+    public String getProofKey() { return proofKey; }
+    public void setProofKey(String proofKey) { this.proofKey = proofKey; }
+}
@@ -0,0 +1,40 @@
+package com.example.student_activity_points.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+
+/**
+ * Proof columns of the StudentActivity table, used only by ProofMigrationJob to move
+ * the old LONGBLOB proofs into ProofStorageService.
+ */
+@Entity
+@Table(name = "StudentActivity")
+@IdClass(StudentActivityId.class)
+public class LegacyStudentActivityProof {
+
+    @Id
+    private String sid;
+
+    @Id
+    private int actID;
+
+    @Lob
+    @Column(name = "proof", columnDefinition = "LONGBLOB")
+    private byte[] proof;
+
+    @Column(name = "proof_key", length = 64)
+    private String proofKey;
+
+    public String getSid() { return sid; }
+    public int getActID() { return actID; }
+
+    public byte[] getProof() { return proof; }
+    public void setProof(byte[] proof) { this.proof = proof; }
+
+    public String getProofKey() { return proofKey; }
+    public void setProofKey(String proofKey) { this.proofKey = proofKey; }
+}
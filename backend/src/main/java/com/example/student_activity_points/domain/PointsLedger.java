@@ -0,0 +1,74 @@
+package com.example.student_activity_points.domain;
+
+import jakarta.persistence.*;
+
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only record of every change to a student's point totals.
+ * Credits are positive, reversals negative; the sum of a student's entries per
+ * category is the authoritative value of the matching Student column.
+ */
+@Entity
+@Immutable
+@Table(name = "points_ledger",
+       indexes = @Index(name = "idx_points_ledger_sid", columnList = "sid"),
+       uniqueConstraints = @UniqueConstraint(name = "uk_points_ledger_credit", columnNames = "credit_key"))
+public class PointsLedger {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sid", nullable = false)
+    private String sid;
+
+    // Institute, Department or Other, as on Activity.type
+    @Column(name = "category", nullable = false, length = 20)
+    private String category;
+
+    @Column(name = "points", nullable = false)
+    private int points;
+
+    @Column(name = "source", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private Source source;
+
+    // Request id, activity id or admin email, depending on the source
+    @Column(name = "reference")
+    private String reference;
+
+    // source/reference/sid for credits that may happen only once per student (an
+    // approved request); null otherwise, since edits and imports repeat legitimately
+    @Column(name = "credit_key", length = 300)
+    private String creditKey;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public enum Source { APPROVAL, ATTENDANCE, ADMIN_EDIT, IMPORT, OPENING_BALANCE, REVERSAL }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+
+    public String getSid() { return sid; }
+    public void setSid(String sid) { this.sid = sid; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public int getPoints() { return points; }
+    public void setPoints(int points) { this.points = points; }
+
+    public Source getSource() { return source; }
+    public void setSource(Source source) { this.source = source; }
+
+    public String getReference() { return reference; }
+    public void setReference(String reference) { this.reference = reference; }
+
+    public String getCreditKey() { return creditKey; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "refresh_tokens")
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_user", columnList = "userEmail, userRole"),
+        @Index(name = "idx_refresh_tokens_expiry", columnList = "expiryDate")
+})
 public class RefreshToken {
 
     @Id
@@ -2,6 +2,8 @@ package com.example.student_activity_points.domain;
 
 import java.util.Date;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -9,11 +11,11 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.Lob;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "Requests")
+@Table(name = "Requests", indexes = @Index(name = "idx_requests_sid_status", columnList = "sid, status"))
 public class Requests {
 
     @Id
@@ -50,17 +52,13 @@ public class Requests {
     @Column(name = "points")
     private Integer points;
 
-    @Lob
-    @Column(name = "proof", columnDefinition = "LONGBLOB")
-    private byte[] proof;
-
-    public byte[] getProof() {
-        return proof == null ? null : proof.clone();
-    }
+    // SHA-256 key of the proof document in ProofStorageService
+    @JsonIgnore
+    @Column(name = "proof_key", length = 64)
+    private String proofKey;
 
-    public void setProof(byte[] proof) {
-        this.proof = (proof == null) ? null : proof.clone();
-    }
+    public String getProofKey() { return proofKey; }
+    public void setProofKey(String proofKey) { this.proofKey = proofKey; }
 
     // Enum types
     public enum Status {
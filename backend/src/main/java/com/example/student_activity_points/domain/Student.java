@@ -6,11 +6,15 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
-@Table(name = "Student")
+@Table(name = "Student", indexes = @Index(name = "idx_student_faid_name", columnList = "FAID, name"))
 public class Student {
 
     @Id
@@ -45,6 +49,17 @@ public class Student {
     @Column(name = "other_points", columnDefinition = "INT DEFAULT 0") // ✅ new field
     private int otherPoints;
 
+    // Completed mandatory activities; maintained only by MandatoryCountService bulk updates
+    @Column(name = "mandatory_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "INT NOT NULL DEFAULT 0")
+    private int mandatoryCount;
+
+    // Optimistic lock: point credits bump it, so a stale full-entity save fails instead of undoing them
+    @JsonIgnore
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
+
     public String getSid() {
         return sid;
     }
@@ -110,12 +125,15 @@ public class Student {
         this.otherPoints = otherPoints;
     }
     public int getActivityPoints() {
-        return activityPoints;
+        // Column is nullable; treat a missing total as 0 like the list queries do
+        return activityPoints == null ? 0 : activityPoints;
     }
 
     public void setActivityPoints(int activityPoints) {
         this.activityPoints = activityPoints;
     }
 
+    public int getMandatoryCount() {
+        return mandatoryCount;
+    }
 }
-
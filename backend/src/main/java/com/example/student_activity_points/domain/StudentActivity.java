@@ -6,7 +6,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.util.Date;
 
 @Entity
-@Table(name = "StudentActivity")
+@Table(name = "StudentActivity",
+       indexes = @Index(name = "idx_student_activity_sid_date", columnList = "sid, date DESC"))
 @IdClass(StudentActivityId.class)  // Composite Key
 public class StudentActivity {
 
@@ -55,17 +56,13 @@ public class StudentActivity {
     @Column(name = "activity_type", nullable = false)
     private String activityType;
 
-    @Lob
-    @Column(name = "proof", columnDefinition = "LONGBLOB")
-        private byte[] proof;
-
-    public byte[] getProof() {
-         return proof == null ? null : proof.clone();
-    }
+    // SHA-256 key of the proof document in ProofStorageService
+    @JsonIgnore
+    @Column(name = "proof_key", length = 64)
+    private String proofKey;
 
-    public void setProof(byte[] proof) {
-        this.proof = proof == null ? null : proof.clone();
-        }
+    public String getProofKey() { return proofKey; }
+    public void setProofKey(String proofKey) { this.proofKey = proofKey; }
 
     public String getSid() { return sid; }
     public void setSid(String sid) { this.sid = sid; }
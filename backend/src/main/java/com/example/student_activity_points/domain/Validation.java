@@ -7,7 +7,7 @@ import org.hibernate.annotations.OnDeleteAction;
 import java.util.Date;
 
 @Entity
-@Table(name = "Validation")
+@Table(name = "Validation", indexes = @Index(name = "idx_validation_actid_sid", columnList = "actID, SID"))
 public class Validation {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
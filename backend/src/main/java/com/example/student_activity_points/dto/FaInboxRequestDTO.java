@@ -0,0 +1,53 @@
+package com.example.student_activity_points.dto;
+
+import java.util.Date;
+
+import com.example.student_activity_points.domain.Requests;
+
+/**
+ * One row of an FA's request inbox: the request joined with the student's name
+ * and a flag telling whether a proof was uploaded.
+ */
+public class FaInboxRequestDTO {
+    private final Long rid;
+    private final String sid;
+    private final String name;
+    private final Requests.Status status;
+    private final String activityName;
+    private final Date activityDate;
+    private final Integer points;
+    private final Requests.Type type;
+    private final boolean hasProof;
+
+    public FaInboxRequestDTO(Long rid, String sid, String name, Requests.Status status,
+                             String activityName, Date activityDate, Integer points,
+                             Requests.Type type, boolean hasProof) {
+        this.rid = rid;
+        this.sid = sid;
+        this.name = name;
+        this.status = status;
+        this.activityName = activityName;
+        this.activityDate = activityDate == null ? null : new Date(activityDate.getTime());
+        this.points = points;
+        this.type = type;
+        this.hasProof = hasProof;
+    }
+
+    public Long getRid() { return rid; }
+
+    public String getSid() { return sid; }
+
+    public String getName() { return name; }
+
+    public Requests.Status getStatus() { return status; }
+
+    public String getActivityName() { return activityName; }
+
+    public Date getActivityDate() { return activityDate == null ? null : new Date(activityDate.getTime()); }
+
+    public Integer getPoints() { return points; }
+
+    public Requests.Type getType() { return type; }
+
+    public boolean isHasProof() { return hasProof; }
+}
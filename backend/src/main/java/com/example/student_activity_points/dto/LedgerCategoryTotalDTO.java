@@ -0,0 +1,18 @@
+package com.example.student_activity_points.dto;
+
+/**
+ * Sum of a student's ledger entries in one category.
+ */
+public class LedgerCategoryTotalDTO {
+    private final String category;
+    private final long total;
+
+    public LedgerCategoryTotalDTO(String category, Long total) {
+        this.category = category;
+        this.total = total == null ? 0 : total;
+    }
+
+    public String getCategory() { return category; }
+
+    public long getTotal() { return total; }
+}
@@ -0,0 +1,62 @@
+package com.example.student_activity_points.dto;
+
+import java.util.Date;
+
+import com.example.student_activity_points.domain.Requests;
+
+/**
+ * Read-only view of a request for list endpoints. Built directly by a JPQL
+ * constructor expression so listings never touch the proof columns; serializes
+ * with the same field names as the Requests entity.
+ */
+public class RequestSummaryDTO {
+    private final Long rid;
+    private final String sid;
+    private final Date date;
+    private final Requests.Status status;
+    private final Date decisionDate;
+    private final String activityName;
+    private final String description;
+    private final Date activityDate;
+    private final Requests.Type type;
+    private final Integer points;
+    private final String comments;
+
+    public RequestSummaryDTO(Long rid, String sid, Date date, Requests.Status status, Date decisionDate,
+                             String activityName, String description, Date activityDate,
+                             Requests.Type type, Integer points, String comments) {
+        this.rid = rid;
+        this.sid = sid;
+        this.date = date == null ? null : new Date(date.getTime());
+        this.status = status;
+        this.decisionDate = decisionDate == null ? null : new Date(decisionDate.getTime());
+        this.activityName = activityName;
+        this.description = description;
+        this.activityDate = activityDate == null ? null : new Date(activityDate.getTime());
+        this.type = type;
+        this.points = points;
+        this.comments = comments;
+    }
+
+    public Long getRid() { return rid; }
+
+    public String getSid() { return sid; }
+
+    public Date getDate() { return date == null ? null : new Date(date.getTime()); }
+
+    public Requests.Status getStatus() { return status; }
+
+    public Date getDecisionDate() { return decisionDate == null ? null : new Date(decisionDate.getTime()); }
+
+    public String getActivityName() { return activityName; }
+
+    public String getDescription() { return description; }
+
+    public Date getActivityDate() { return activityDate == null ? null : new Date(activityDate.getTime()); }
+
+    public Requests.Type getType() { return type; }
+
+    public Integer getPoints() { return points; }
+
+    public String getComments() { return comments; }
+}
@@ -0,0 +1,40 @@
+package com.example.student_activity_points.dto;
+
+import java.util.Date;
+
+import com.example.student_activity_points.domain.StudentActivity;
+
+/**
+ * Read-only view of a student's activity record for list endpoints, selected
+ * without the proof columns.
+ */
+public class StudentActivitySummaryDTO {
+    private final int actID;
+    private final String title;
+    private final Date date;
+    private final StudentActivity.Validated validated;
+    private final int points;
+    private final String activityType;
+
+    public StudentActivitySummaryDTO(int actID, String title, Date date,
+                                     StudentActivity.Validated validated, int points, String activityType) {
+        this.actID = actID;
+        this.title = title;
+        this.date = date == null ? null : new Date(date.getTime());
+        this.validated = validated;
+        this.points = points;
+        this.activityType = activityType;
+    }
+
+    public int getActID() { return actID; }
+
+    public String getTitle() { return title; }
+
+    public Date getDate() { return date == null ? null : new Date(date.getTime()); }
+
+    public StudentActivity.Validated getValidated() { return validated; }
+
+    public int getPoints() { return points; }
+
+    public String getActivityType() { return activityType; }
+}
@@ -0,0 +1,86 @@
+package com.example.student_activity_points.dto;
+
+import jakarta.validation.constraints.*;
+
+/**
+ * Filters, sort and page parameters for the FA student list query.
+ * Every filter is optional; "above"/"below" are exclusive bounds.
+ */
+public class StudentListQuery {
+
+    @Size(max = 50, message = "Name too long")
+    @Pattern(regexp = "[a-zA-Z ]*", message = "Invalid characters in name")
+    private String name;
+
+    @Min(value = 0, message = "Valid mandatory count is required")
+    private Long mandatoryCount;
+
+    @Min(value = 0, message = "Valid points value is required")
+    private Long deptPointsAbove;
+
+    @Min(value = 0, message = "Valid points value is required")
+    private Long deptPointsBelow;
+
+    @Min(value = 0, message = "Valid points value is required")
+    private Long instPointsAbove;
+
+    @Min(value = 0, message = "Valid points value is required")
+    private Long instPointsBelow;
+
+    @Min(value = 0, message = "Valid points value is required")
+    private Long activityPointsAbove;
+
+    @Min(value = 0, message = "Valid points value is required")
+    private Long activityPointsBelow;
+
+    @Pattern(regexp = "name|deptPoints|institutePoints|activityPoints|mandatoryCount",
+             message = "sort must be one of name, deptPoints, institutePoints, activityPoints, mandatoryCount")
+    private String sort = "name";
+
+    @Pattern(regexp = "asc|desc", message = "direction must be asc or desc")
+    private String direction = "asc";
+
+    // Opaque keyset cursor returned as nextCursor by the previous page
+    private String cursor;
+
+    // Page size; null returns every matching student
+    @Min(value = 1, message = "limit must be between 1 and 200")
+    @Max(value = 200, message = "limit must be between 1 and 200")
+    private Integer limit;
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public Long getMandatoryCount() { return mandatoryCount; }
+    public void setMandatoryCount(Long mandatoryCount) { this.mandatoryCount = mandatoryCount; }
+
+    public Long getDeptPointsAbove() { return deptPointsAbove; }
+    public void setDeptPointsAbove(Long deptPointsAbove) { this.deptPointsAbove = deptPointsAbove; }
+
+    public Long getDeptPointsBelow() { return deptPointsBelow; }
+    public void setDeptPointsBelow(Long deptPointsBelow) { this.deptPointsBelow = deptPointsBelow; }
+
+    public Long getInstPointsAbove() { return instPointsAbove; }
+    public void setInstPointsAbove(Long instPointsAbove) { this.instPointsAbove = instPointsAbove; }
+
+    public Long getInstPointsBelow() { return instPointsBelow; }
+    public void setInstPointsBelow(Long instPointsBelow) { this.instPointsBelow = instPointsBelow; }
+
+    public Long getActivityPointsAbove() { return activityPointsAbove; }
+    public void setActivityPointsAbove(Long activityPointsAbove) { this.activityPointsAbove = activityPointsAbove; }
+
+    public Long getActivityPointsBelow() { return activityPointsBelow; }
+    public void setActivityPointsBelow(Long activityPointsBelow) { this.activityPointsBelow = activityPointsBelow; }
+
+    public String getSort() { return sort; }
+    public void setSort(String sort) { this.sort = sort; }
+
+    public String getDirection() { return direction; }
+    public void setDirection(String direction) { this.direction = direction; }
+
+    public String getCursor() { return cursor; }
+    public void setCursor(String cursor) { this.cursor = cursor; }
+
+    public Integer getLimit() { return limit; }
+    public void setLimit(Integer limit) { this.limit = limit; }
+}
@@ -0,0 +1,43 @@
+package com.example.student_activity_points.dto;
+
+/**
+ * A student's per-category point totals together with the owning FA, as used
+ * by the points ledger to post entries and roll them up per FA.
+ */
+public class StudentPointsDTO {
+    private final String sid;
+    private final int faid;
+    private final int deptPoints;
+    private final int institutePoints;
+    private final int otherPoints;
+
+    public StudentPointsDTO(String sid, int faid, int deptPoints, int institutePoints, int otherPoints) {
+        this.sid = sid;
+        this.faid = faid;
+        this.deptPoints = deptPoints;
+        this.institutePoints = institutePoints;
+        this.otherPoints = otherPoints;
+    }
+
+    public String getSid() { return sid; }
+
+    public int getFaid() { return faid; }
+
+    public int getDeptPoints() { return deptPoints; }
+
+    public int getInstitutePoints() { return institutePoints; }
+
+    public int getOtherPoints() { return otherPoints; }
+
+    public int getActivityPoints() { return deptPoints + institutePoints + otherPoints; }
+
+    /** Points in one ledger category: Department, Institute or Other */
+    public int getPoints(String category) {
+        switch (category) {
+            case "Department": return deptPoints;
+            case "Institute": return institutePoints;
+            case "Other": return otherPoints;
+            default: throw new IllegalArgumentException("Unknown category: " + category);
+        }
+    }
+}
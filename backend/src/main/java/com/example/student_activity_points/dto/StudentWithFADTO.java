@@ -29,6 +29,21 @@ public class StudentWithFADTO {
         this.activityPoints = student.getActivityPoints();
     }
 
+    // Projection constructor for the joined Student/FA list queries
+    public StudentWithFADTO(String sid, String name, String email, Integer faid, String faName, String faEmail,
+                            Integer deptPoints, Integer institutePoints, Integer otherPoints, Integer activityPoints) {
+        this.sid = sid;
+        this.name = name;
+        this.email = email;
+        this.faName = faName;
+        this.faEmail = faEmail;
+        this.FAID = faid.longValue();
+        this.deptPoints = deptPoints;
+        this.institutePoints = institutePoints;
+        this.otherPoints = otherPoints;
+        this.activityPoints = activityPoints;
+    }
+
     // Getters
     public String getSid() {
         return sid;
@@ -3,6 +3,10 @@ package com.example.student_activity_points.filters;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import io.github.bucket4j.*;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
 import org.slf4j.Logger;
@@ -13,8 +17,9 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
-public class ForgotPasswordRateLimitFilter extends OncePerRequestFilter {
+public class ForgotPasswordRateLimitFilter extends OncePerRequestFilter implements MeterBinder {
 
     private static final Logger log = LoggerFactory.getLogger(ForgotPasswordRateLimitFilter.class);
 
@@ -22,14 +27,33 @@ public class ForgotPasswordRateLimitFilter extends OncePerRequestFilter {
     private final Cache<String, Bucket> ipCache = Caffeine.newBuilder()
             .expireAfterWrite(1, TimeUnit.HOURS)
             .maximumSize(10_000)
+            .recordStats()
             .build();
 
     // Email-based rate limiting (secondary protection)
     private final Cache<String, Bucket> emailCache = Caffeine.newBuilder()
             .expireAfterWrite(30, TimeUnit.MINUTES)
             .maximumSize(50_000)
+            .recordStats()
             .build();
 
+    private final AtomicLong ipRejected = new AtomicLong();
+    private final AtomicLong emailRejected = new AtomicLong();
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, ipCache, "forgotPasswordIp");
+        CaffeineCacheMetrics.monitor(registry, emailCache, "forgotPasswordEmail");
+        FunctionCounter.builder("ratelimit.rejected", ipRejected, AtomicLong::get)
+                .description("Requests rejected by a rate limiter")
+                .tag("limiter", "forgotPasswordIp")
+                .register(registry);
+        FunctionCounter.builder("ratelimit.rejected", emailRejected, AtomicLong::get)
+                .description("Requests rejected by a rate limiter")
+                .tag("limiter", "forgotPasswordEmail")
+                .register(registry);
+    }
+
     private Bucket newIpBucket() {
         return Bucket.builder()
                 .addLimit(Bandwidth.classic(
@@ -82,6 +106,7 @@ public class ForgotPasswordRateLimitFilter extends OncePerRequestFilter {
         // Check IP-based rate limit FIRST
         Bucket ipBucket = ipCache.get(ip, k -> newIpBucket());
         if (!ipBucket.tryConsume(1)) {
+            ipRejected.incrementAndGet();
             log.warn("⚠️ IP rate limit exceeded for forgot-password: {}", ip);
             response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
             response.setContentType("application/json");
@@ -96,6 +121,7 @@ public class ForgotPasswordRateLimitFilter extends OncePerRequestFilter {
         if (email != null) {
             Bucket emailBucket = emailCache.get(email, k -> newEmailBucket());
             if (!emailBucket.tryConsume(1)) {
+                emailRejected.incrementAndGet();
                 log.warn("⚠️ Email rate limit exceeded for forgot-password: {}", email);
                 
                 // IMPORTANT: Still return generic message (don't reveal email exists)
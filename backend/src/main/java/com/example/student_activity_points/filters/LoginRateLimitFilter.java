@@ -1,6 +1,10 @@
 package com.example.student_activity_points.filters;
 
 import io.github.bucket4j.*;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
 import org.slf4j.Logger;
@@ -11,8 +15,9 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
-public class LoginRateLimitFilter extends OncePerRequestFilter {
+public class LoginRateLimitFilter extends OncePerRequestFilter implements MeterBinder {
     
     private static final Logger log = LoggerFactory.getLogger(LoginRateLimitFilter.class);
 
@@ -21,8 +26,20 @@ public class LoginRateLimitFilter extends OncePerRequestFilter {
         com.github.benmanes.caffeine.cache.Caffeine.newBuilder()
             .expireAfterWrite(1, TimeUnit.HOURS)
             .maximumSize(10_000)
+            .recordStats()
             .build();
 
+    private final AtomicLong rejected = new AtomicLong();
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "loginRateLimit");
+        FunctionCounter.builder("ratelimit.rejected", rejected, AtomicLong::get)
+                .description("Requests rejected by a rate limiter")
+                .tag("limiter", "login")
+                .register(registry);
+    }
+
     private Bucket newBucket() {
         return Bucket.builder()
                 .addLimit(Bandwidth.classic(
@@ -61,6 +78,7 @@ public class LoginRateLimitFilter extends OncePerRequestFilter {
             Bucket bucket = cache.get(ip, k -> newBucket());
 
             if (!bucket.tryConsume(1)) {
+                rejected.incrementAndGet();
                 log.warn("Rate limit exceeded for IP: {} on login endpoint: {}", ip, path);
                 response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
                 response.setContentType("application/json");
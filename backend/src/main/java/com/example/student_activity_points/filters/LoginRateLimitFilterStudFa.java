@@ -6,6 +6,10 @@ package com.example.student_activity_points.filters;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import io.github.bucket4j.*;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
 import org.slf4j.Logger;
@@ -17,9 +21,10 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
-public class LoginRateLimitFilterStudFa extends OncePerRequestFilter {
+public class LoginRateLimitFilterStudFa extends OncePerRequestFilter implements MeterBinder {
 
     private static final Logger log = LoggerFactory.getLogger(LoginRateLimitFilterStudFa.class);
 
@@ -27,8 +32,20 @@ public class LoginRateLimitFilterStudFa extends OncePerRequestFilter {
     private final Cache<String, Bucket> ipBuckets = Caffeine.newBuilder()
             .expireAfterWrite(1, TimeUnit.HOURS)
             .maximumSize(10_000)
+            .recordStats()
             .build();
 
+    private final AtomicLong rejected = new AtomicLong();
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, ipBuckets, "loginRateLimitStudFa");
+        FunctionCounter.builder("ratelimit.rejected", rejected, AtomicLong::get)
+                .description("Requests rejected by a rate limiter")
+                .tag("limiter", "loginStudFa")
+                .register(registry);
+    }
+
     private Bucket newBucket() {
         return Bucket.builder()
                 .addLimit(Bandwidth.classic(
@@ -75,6 +92,7 @@ public class LoginRateLimitFilterStudFa extends OncePerRequestFilter {
             ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
             
             if (!probe.isConsumed()) {
+                rejected.incrementAndGet();
                 long waitSeconds = probe.getNanosToWaitForRefill() / 1_000_000_000;
                 log.warn("IP rate limit exceeded for: {} on login endpoint: {}", ip, path);
                 
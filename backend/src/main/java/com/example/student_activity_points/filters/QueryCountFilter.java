@@ -0,0 +1,87 @@
+package com.example.student_activity_points.filters;
+
+import com.example.student_activity_points.util.QueryCounter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the SQL statements each request runs and publishes them per endpoint:
+ * hibernate.request.statements (statements per request) and hibernate.request.jdbc
+ * (JDBC execution time per request), tagged with method and URI pattern.
+ *
+ * A request over hibernate.query-count.warn-threshold statements is logged as a
+ * likely N+1 loop.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryCountFilter.class);
+
+    // Requests no controller handled (rejected by security, 404) share one tag
+    private static final String UNMAPPED = "UNMAPPED";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${hibernate.query-count.warn-threshold:50}")
+    private long warnThreshold;
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        QueryCounter.Scope scope = QueryCounter.open();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            scope.close();
+            record(request, scope);
+        }
+    }
+
+    /* ===================== INTERNAL ===================== */
+
+    private void record(HttpServletRequest request, QueryCounter.Scope scope) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : UNMAPPED;
+        String method = request.getMethod();
+
+        DistributionSummary.builder("hibernate.request.statements")
+                .description("SQL statements prepared per request")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(scope.getStatements());
+        Timer.builder("hibernate.request.jdbc")
+                .description("Time spent executing SQL per request")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(scope.getJdbcNanos(), TimeUnit.NANOSECONDS);
+
+        if (scope.getStatements() > warnThreshold) {
+            log.warn("{} {} ran {} SQL statements ({} ms in JDBC), over the threshold of {}: likely an N+1 loop",
+                    method, uri, scope.getStatements(), scope.getJdbcMillis(), warnThreshold);
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.student_activity_points.repository;
 
 import  java.util.List;
+import java.util.Collection;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 import com.example.student_activity_points.domain.Activity;
 
@@ -12,4 +15,7 @@ public interface ActivityRepository extends CrudRepository<Activity, Long> {
     List<Activity> findByMandatory(Integer mandatory);
     List<Activity> findByTypeIgnoreCase(String type);
     List<Activity> findByNameIn(List<String> names);
+
+    @Query("SELECT a.name FROM Activity a WHERE a.name IN :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
 }
\ No newline at end of file
@@ -8,5 +8,8 @@ import java.util.List;
 @Repository
 public interface AnnouncementsRepository extends JpaRepository<Announcements, Integer> {
     List<Announcements> findByFAID(Integer FAID);
+
+    // Feed order: oldest first, so new announcements append at the end
+    List<Announcements> findByFAIDOrderByDateAscAidAsc(Integer FAID);
     Announcements findByAid(Long aid);
 }
@@ -2,13 +2,22 @@ package com.example.student_activity_points.repository;
 
 import com.example.student_activity_points.domain.Fa;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 public interface FARepository extends CrudRepository<Fa, Long> {
     Optional<Fa> findByEmailID(String emailID);
 
     List<Fa> findByDepartment_Name(String name);
     boolean existsByEmailID(String emailID);
+
+    @Query("SELECT f.FAID FROM Fa f WHERE f.FAID IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT f.emailID FROM Fa f WHERE f.emailID IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
 }
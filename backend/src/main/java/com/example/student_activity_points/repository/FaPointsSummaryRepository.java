@@ -0,0 +1,47 @@
+package com.example.student_activity_points.repository;
+
+import com.example.student_activity_points.domain.FaPointsSummary;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+public interface FaPointsSummaryRepository extends CrudRepository<FaPointsSummary, Long> {
+
+    // Atomic increment of one FA's running totals, creating the row on the FA's first points.
+    // A single upsert, so concurrent first credits cannot both try to insert the row.
+    @Modifying
+    @Query(value = "INSERT INTO fa_points_summary (faid, dept_points, institute_points, other_points) " +
+                   "VALUES (:faid, :dept, :institute, :other) " +
+                   "ON DUPLICATE KEY UPDATE " +
+                   "dept_points = dept_points + :dept, " +
+                   "institute_points = institute_points + :institute, " +
+                   "other_points = other_points + :other",
+           nativeQuery = true)
+    int add(@Param("faid") Long faid,
+            @Param("dept") long dept,
+            @Param("institute") long institute,
+            @Param("other") long other);
+
+    // Recomputes one FA's row from the per-student totals of that FA
+    @Modifying
+    @Query("UPDATE FaPointsSummary f SET " +
+           "f.deptPoints = (SELECT COALESCE(SUM(s.deptPoints), 0) FROM Student s WHERE s.FAID = f.faid), " +
+           "f.institutePoints = (SELECT COALESCE(SUM(s.institutePoints), 0) FROM Student s WHERE s.FAID = f.faid), " +
+           "f.otherPoints = (SELECT COALESCE(SUM(s.otherPoints), 0) FROM Student s WHERE s.FAID = f.faid) " +
+           "WHERE f.faid = :faid")
+    int recalculate(@Param("faid") Long faid);
+
+    @Modifying
+    @Query("DELETE FROM FaPointsSummary f")
+    int deleteAllRows();
+
+    // Recomputes every FA's row from the per-student totals
+    @Modifying
+    @Query("INSERT INTO FaPointsSummary (faid, deptPoints, institutePoints, otherPoints) " +
+           "SELECT f.FAID, COALESCE(SUM(s.deptPoints), 0), COALESCE(SUM(s.institutePoints), 0), " +
+           "COALESCE(SUM(s.otherPoints), 0) " +
+           "FROM Fa f LEFT JOIN Student s ON s.FAID = f.FAID GROUP BY f.FAID")
+    int insertFromStudents();
+}
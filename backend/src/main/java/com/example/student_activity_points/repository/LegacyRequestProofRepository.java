@@ -0,0 +1,16 @@
+package com.example.student_activity_points.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+
+import com.example.student_activity_points.domain.LegacyRequestProof;
+
+public interface LegacyRequestProofRepository extends CrudRepository<LegacyRequestProof, Long> {
+
+    // Requests whose proof is still stored in the LONGBLOB column
+    @Query("SELECT l.rid FROM LegacyRequestProof l WHERE l.proof IS NOT NULL ORDER BY l.rid")
+    List<Long> findIdsWithBlob(Pageable pageable);
+}
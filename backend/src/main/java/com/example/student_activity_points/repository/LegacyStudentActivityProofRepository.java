@@ -0,0 +1,19 @@
+package com.example.student_activity_points.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+
+import com.example.student_activity_points.domain.LegacyStudentActivityProof;
+import com.example.student_activity_points.domain.StudentActivityId;
+
+public interface LegacyStudentActivityProofRepository
+        extends CrudRepository<LegacyStudentActivityProof, StudentActivityId> {
+
+    // Student activities whose proof is still stored in the LONGBLOB column
+    @Query("SELECT new com.example.student_activity_points.domain.StudentActivityId(l.sid, l.actID) "
+            + "FROM LegacyStudentActivityProof l WHERE l.proof IS NOT NULL ORDER BY l.sid, l.actID")
+    List<StudentActivityId> findIdsWithBlob(Pageable pageable);
+}
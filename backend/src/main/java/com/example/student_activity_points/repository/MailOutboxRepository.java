@@ -0,0 +1,57 @@
+package com.example.student_activity_points.repository;
+
+import com.example.student_activity_points.domain.MailOutbox;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface MailOutboxRepository extends CrudRepository<MailOutbox, Long> {
+
+    // Oldest due messages first; served by the (status, next_attempt_at) index
+    @Query("SELECT m.id FROM MailOutbox m WHERE m.status = :status AND m.nextAttemptAt <= :now " +
+           "ORDER BY m.nextAttemptAt")
+    List<Long> findDueIds(@Param("status") MailOutbox.Status status,
+                          @Param("now") LocalDateTime now,
+                          Limit limit);
+
+    // Leases the rows to one dispatcher run. Rows another run claimed in the meantime are
+    // no longer due and are skipped; a run that dies leaves its rows due again after the lease.
+    @Transactional
+    @Modifying
+    @Query("UPDATE MailOutbox m SET m.claimToken = :token, m.nextAttemptAt = :leaseUntil " +
+           "WHERE m.id IN :ids AND m.status = :status AND m.nextAttemptAt <= :now")
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("status") MailOutbox.Status status,
+              @Param("now") LocalDateTime now,
+              @Param("token") String token,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    List<MailOutbox> findByClaimToken(String claimToken);
+
+    // One message per student of the FA, written in a single INSERT ... SELECT
+    @Transactional
+    @Modifying
+    @Query("INSERT INTO MailOutbox (recipient, subject, body, status, attempts, nextAttemptAt, createdAt) " +
+           "SELECT s.emailID, CAST(:subject AS String), CAST(:body AS String), :status, 0, " +
+           "CAST(:now AS LocalDateTime), CAST(:now AS LocalDateTime) " +
+           "FROM Student s WHERE s.FAID = :faid")
+    int queueForStudentsOfFa(@Param("faid") int faid,
+                             @Param("subject") String subject,
+                             @Param("body") String body,
+                             @Param("status") MailOutbox.Status status,
+                             @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM MailOutbox m WHERE m.status = :status AND m.createdAt < :before")
+    int deleteByStatusCreatedBefore(@Param("status") MailOutbox.Status status,
+                                    @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,48 @@
+package com.example.student_activity_points.repository;
+
+import com.example.student_activity_points.domain.PointsLedger;
+import com.example.student_activity_points.dto.LedgerCategoryTotalDTO;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface PointsLedgerRepository extends CrudRepository<PointsLedger, Long> {
+
+    // One credit entry per existing student, written in a single INSERT ... SELECT.
+    // A non-null creditKeyPrefix gives each entry the credit key prefix + sid, so
+    // crediting the same key twice fails on uk_points_ledger_credit.
+    @Modifying
+    @Query("INSERT INTO PointsLedger (sid, category, points, source, reference, creditKey, createdAt) " +
+           "SELECT s.sid, CAST(:category AS String), CAST(:points AS Integer), :source, " +
+           "CAST(:reference AS String), " +
+           "CASE WHEN CAST(:creditKeyPrefix AS String) IS NULL THEN CAST(NULL AS String) " +
+           "ELSE CONCAT(CAST(:creditKeyPrefix AS String), s.sid) END, " +
+           "CAST(:createdAt AS LocalDateTime) " +
+           "FROM Student s WHERE s.sid IN :sids")
+    int appendForStudents(@Param("sids") Collection<String> sids,
+                          @Param("category") String category,
+                          @Param("points") int points,
+                          @Param("source") PointsLedger.Source source,
+                          @Param("reference") String reference,
+                          @Param("creditKeyPrefix") String creditKeyPrefix,
+                          @Param("createdAt") LocalDateTime createdAt);
+
+    // Balance per category for one student; served by the sid index
+    @Query("SELECT new com.example.student_activity_points.dto.LedgerCategoryTotalDTO(l.category, SUM(l.points)) " +
+           "FROM PointsLedger l WHERE l.sid = :sid GROUP BY l.category")
+    List<LedgerCategoryTotalDTO> sumByCategory(@Param("sid") String sid);
+
+    // Students holding points that the ledger has never seen (pre-ledger history)
+    @Query("SELECT s.sid FROM Student s " +
+           "WHERE (s.deptPoints <> 0 OR s.institutePoints <> 0 OR s.otherPoints <> 0) " +
+           "AND NOT EXISTS (SELECT 1 FROM PointsLedger l WHERE l.sid = s.sid) " +
+           "ORDER BY s.sid")
+    List<String> findSidsWithoutEntries(Limit limit);
+}
@@ -1,13 +1,60 @@
 package com.example.student_activity_points.repository;
 
+import java.util.Date;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 import com.example.student_activity_points.domain.Requests;
+import com.example.student_activity_points.dto.FaInboxRequestDTO;
+import com.example.student_activity_points.dto.RequestSummaryDTO;
 
 public interface RequestsRepository extends CrudRepository<Requests, Long> {
     List<Requests> findBySidIn(List<String> sid);  // For multiple SIDs
     List<Requests> findBySid(String sid);  // For a single SID
     void deleteBySid(String sid);
+
+    // List views: select only the summary columns, never the proof
+    @Query("SELECT new com.example.student_activity_points.dto.RequestSummaryDTO(" +
+           "r.rid, r.sid, r.date, r.status, r.decisionDate, r.activityName, r.description, " +
+           "r.activityDate, r.type, r.points, r.comments) " +
+           "FROM Requests r ORDER BY r.rid")
+    List<RequestSummaryDTO> findAllSummaries();
+
+    @Query("SELECT new com.example.student_activity_points.dto.RequestSummaryDTO(" +
+           "r.rid, r.sid, r.date, r.status, r.decisionDate, r.activityName, r.description, " +
+           "r.activityDate, r.type, r.points, r.comments) " +
+           "FROM Requests r WHERE r.sid = :sid ORDER BY r.rid")
+    List<RequestSummaryDTO> findSummariesBySid(@Param("sid") String sid);
+
+    /**
+     * Requests from the FA's students, newest first, with keyset pagination on rid.
+     * status and beforeRid are optional filters (pass null to skip them).
+     */
+    @Query("SELECT new com.example.student_activity_points.dto.FaInboxRequestDTO(" +
+           "r.rid, r.sid, s.name, r.status, r.activityName, r.activityDate, r.points, r.type, " +
+           "CASE WHEN r.proofKey IS NOT NULL THEN true ELSE false END) " +
+           "FROM Requests r JOIN Student s ON s.sid = r.sid " +
+           "WHERE s.FAID = :faid " +
+           "AND (:status IS NULL OR r.status = :status) " +
+           "AND (:beforeRid IS NULL OR r.rid < :beforeRid) " +
+           "ORDER BY r.rid DESC")
+    List<FaInboxRequestDTO> findFaInbox(
+            @Param("faid") int faid,
+            @Param("status") Requests.Status status,
+            @Param("beforeRid") Long beforeRid,
+            Limit limit);
+
+    // Moves the request out of the expected status; 0 means someone else decided it first
+    @Modifying
+    @Query("UPDATE Requests r SET r.status = :decided, r.decisionDate = :decisionDate " +
+           "WHERE r.rid = :rid AND r.status = :expected")
+    int decide(@Param("rid") Long rid,
+               @Param("expected") Requests.Status expected,
+               @Param("decided") Requests.Status decided,
+               @Param("decisionDate") Date decisionDate);
 }
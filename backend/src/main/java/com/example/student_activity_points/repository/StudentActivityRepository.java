@@ -2,8 +2,14 @@ package com.example.student_activity_points.repository;
 
 import com.example.student_activity_points.domain.StudentActivity;
 import com.example.student_activity_points.domain.StudentActivityId;
+import com.example.student_activity_points.dto.StudentActivitySummaryDTO;
 
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,4 +26,18 @@ public interface StudentActivityRepository extends CrudRepository<StudentActivit
     // Get only the latest activity
     StudentActivity findTopBySidOrderByDateDesc(String sid);
 
+    // List view of a student's activities without the proof columns
+    @Query("SELECT new com.example.student_activity_points.dto.StudentActivitySummaryDTO(" +
+           "sa.actID, sa.title, sa.date, sa.validated, sa.points, sa.activityType) " +
+           "FROM StudentActivity sa WHERE sa.sid = :sid")
+    List<StudentActivitySummaryDTO> findSummariesBySid(@Param("sid") String sid);
+
+    // Which of the given SIDs are already enrolled in the activity (bulk duplicate check)
+    @Query("SELECT sa.sid FROM StudentActivity sa WHERE sa.actID = :actID AND sa.sid IN :sids")
+    List<String> findEnrolledSids(@Param("actID") int actID, @Param("sids") Collection<String> sids);
+
+    @Modifying
+    @Query("DELETE FROM StudentActivity sa WHERE sa.sid IN :sids")
+    int deleteBySidIn(@Param("sids") Collection<String> sids);
+
 }
\ No newline at end of file
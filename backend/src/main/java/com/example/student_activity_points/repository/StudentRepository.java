@@ -1,19 +1,43 @@
 package com.example.student_activity_points.repository;
 
 import com.example.student_activity_points.domain.Student;
+import com.example.student_activity_points.dto.StudentPointsDTO;
+import com.example.student_activity_points.dto.StudentWithFADTO;
 import com.example.student_activity_points.dto.StudentWithMandatoryDTO;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
 
 public interface StudentRepository extends CrudRepository<Student, String> {
+
+    // Admin student list: each student joined to its FA, filtered by department, FA and a
+    // lowercase LIKE pattern over SID, name and FA name; null parameters match everything
+    String WITH_FA_FROM =
+            "FROM Student s LEFT JOIN Fa f ON f.FAID = s.FAID " +
+            "WHERE (:did IS NULL OR s.DID = :did) AND (:faid IS NULL OR s.FAID = :faid) " +
+            "AND (:pattern IS NULL OR LOWER(s.sid) LIKE :pattern ESCAPE '\\' " +
+            "OR LOWER(s.name) LIKE :pattern ESCAPE '\\' OR LOWER(f.name) LIKE :pattern ESCAPE '\\') ";
+
+    String WITH_FA_SELECT =
+            "SELECT new com.example.student_activity_points.dto.StudentWithFADTO(" +
+            "s.sid, s.name, s.emailID, s.FAID, f.name, f.emailID, " +
+            "s.deptPoints, s.institutePoints, s.otherPoints, COALESCE(s.activityPoints, 0)) ";
     
     // Fetch student by email
     Optional<Student> findByEmailID(String emailID);
 
+    // Just the FA assignment, for the announcement feed
+    @Query("SELECT s.FAID FROM Student s WHERE s.sid = :sid")
+    Optional<Integer> findFaidBySid(@Param("sid") String sid);
+
     // Fetch student by student ID
     Optional<Student> findBySid(String studentID);
 
@@ -22,6 +46,81 @@ public interface StudentRepository extends CrudRepository<Student, String> {
 
     @Query("SELECT s FROM Student s WHERE s.FAID = :FAID")
     List<Student> findByFAID(@Param("FAID") int FAID);
+
+    @Query(value = WITH_FA_SELECT + WITH_FA_FROM + "ORDER BY s.sid",
+           countQuery = "SELECT COUNT(s) " + WITH_FA_FROM)
+    Page<StudentWithFADTO> findWithFa(@Param("did") Integer did,
+                                      @Param("faid") Integer faid,
+                                      @Param("pattern") String pattern,
+                                      Pageable pageable);
+
+    // Keyset batches in SID order, for full lists and exports
+    @Query(WITH_FA_SELECT + WITH_FA_FROM + "AND s.sid > :after ORDER BY s.sid")
+    List<StudentWithFADTO> findWithFaAfter(@Param("after") String after,
+                                           @Param("did") Integer did,
+                                           @Param("faid") Integer faid,
+                                           @Param("pattern") String pattern,
+                                           Limit limit);
+
+    // Which of the given SIDs exist (bulk existence check)
+    @Query("SELECT s.sid FROM Student s WHERE s.sid IN :sids")
+    List<String> findExistingSids(@Param("sids") Collection<String> sids);
+
+    @Query("SELECT s.emailID FROM Student s WHERE s.emailID IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT s.sid FROM Student s WHERE s.emailID IN :emails")
+    List<String> findSidsByEmailIDIn(@Param("emails") Collection<String> emails);
+
+    @Modifying
+    @Query("DELETE FROM Student s WHERE s.sid IN :sids")
+    int deleteBySidIn(@Param("sids") Collection<String> sids);
+
+    // Set-based point credits. activityPoints is assigned first so it is computed
+    // from the old category value on MySQL (left-to-right SET) and standard SQL alike.
+    // VERSIONED bumps Student.version so a concurrent read-modify-write save fails.
+    @Modifying
+    @Query("UPDATE VERSIONED Student s SET " +
+           "s.activityPoints = s.deptPoints + s.institutePoints + s.otherPoints + CAST(:points AS Integer), " +
+           "s.institutePoints = s.institutePoints + CAST(:points AS Integer) " +
+           "WHERE s.sid IN :sids")
+    int addInstitutePoints(@Param("sids") Collection<String> sids, @Param("points") int points);
+
+    @Modifying
+    @Query("UPDATE VERSIONED Student s SET " +
+           "s.activityPoints = s.deptPoints + s.institutePoints + s.otherPoints + CAST(:points AS Integer), " +
+           "s.deptPoints = s.deptPoints + CAST(:points AS Integer) " +
+           "WHERE s.sid IN :sids")
+    int addDeptPoints(@Param("sids") Collection<String> sids, @Param("points") int points);
+
+    @Modifying
+    @Query("UPDATE VERSIONED Student s SET " +
+           "s.activityPoints = s.deptPoints + s.institutePoints + s.otherPoints + CAST(:points AS Integer), " +
+           "s.otherPoints = s.otherPoints + CAST(:points AS Integer) " +
+           "WHERE s.sid IN :sids")
+    int addOtherPoints(@Param("sids") Collection<String> sids, @Param("points") int points);
+
+    // Overwrites the totals with values rebuilt from the points ledger
+    @Modifying
+    @Query("UPDATE VERSIONED Student s SET " +
+           "s.deptPoints = CAST(:dept AS Integer), " +
+           "s.institutePoints = CAST(:institute AS Integer), " +
+           "s.otherPoints = CAST(:other AS Integer), " +
+           "s.activityPoints = CAST(:dept AS Integer) + CAST(:institute AS Integer) + CAST(:other AS Integer) " +
+           "WHERE s.sid = :sid")
+    int setPoints(@Param("sid") String sid,
+                  @Param("dept") int dept,
+                  @Param("institute") int institute,
+                  @Param("other") int other);
+
+    @Query("SELECT new com.example.student_activity_points.dto.StudentPointsDTO(" +
+           "s.sid, s.FAID, s.deptPoints, s.institutePoints, s.otherPoints) " +
+           "FROM Student s WHERE s.sid IN :sids")
+    List<StudentPointsDTO> findPointsBySidIn(@Param("sids") Collection<String> sids);
+
+    // Owning FA of each given student, one element per student found
+    @Query("SELECT s.FAID FROM Student s WHERE s.sid IN :sids")
+    List<Integer> findFaidsBySidIn(@Param("sids") Collection<String> sids);
     
  // Query to get department points for a student
     @Query("SELECT s.deptPoints FROM Student s WHERE s.sid = :studentID")
@@ -35,38 +134,47 @@ public interface StudentRepository extends CrudRepository<Student, String> {
     @Query("SELECT s.activityPoints FROM Student s WHERE s.sid = :studentID")
     Integer getTotalActivityPoints(@Param("studentID") String studentID);
 
+    // Mandatory counts come from the maintained Student.mandatoryCount column
     @Query("SELECT new com.example.student_activity_points.dto.StudentWithMandatoryDTO(" +
-    "s, COUNT(CASE WHEN a.mandatory = 1 THEN sa.actID END)) " +
+    "s, CAST(s.mandatoryCount AS Long)) " +
     "FROM Student s " +
-    "LEFT JOIN StudentActivity sa ON s.sid = sa.sid " +
-    "LEFT JOIN Activity a ON sa.actID = a.actID " +
-    "WHERE s.FAID = :faid " +
-    "GROUP BY s")
+    "WHERE s.FAID = :faid")
     List<StudentWithMandatoryDTO> findStudentsWithMandatoryCount(@Param("faid") int faid);
         
     @Query("SELECT new com.example.student_activity_points.dto.StudentWithMandatoryDTO(" +
-       "s, COUNT(CASE WHEN a.mandatory = 1 THEN sa.actID END)) " +
+       "s, CAST(s.mandatoryCount AS Long)) " +
        "FROM Student s " +
-       "LEFT JOIN StudentActivity sa ON s.sid = sa.sid " +
-       "LEFT JOIN Activity a ON sa.actID = a.actID " +
-       "WHERE s.FAID = :faid AND LOWER(s.name) LIKE LOWER(CONCAT('%', :name, '%')) ESCAPE '\\' " +
-       "GROUP BY s")
+       "WHERE s.FAID = :faid AND LOWER(s.name) LIKE LOWER(CONCAT('%', :name, '%')) ESCAPE '\\'")
 List<StudentWithMandatoryDTO> searchStudentsByFAIDAndName(
         @Param("faid") int faid,
         @Param("name") String name
 );
 
     @Query("SELECT new com.example.student_activity_points.dto.StudentWithMandatoryDTO(" +
-    "s, COUNT(CASE WHEN a.mandatory = 1 THEN sa.actID END)) " +
+    "s, CAST(s.mandatoryCount AS Long)) " +
     "FROM Student s " +
-    "LEFT JOIN StudentActivity sa ON s.sid = sa.sid " +
-    "LEFT JOIN Activity a ON sa.actID = a.actID " +
-    "WHERE s.FAID = :faid " +
-    "GROUP BY s " +
-    "HAVING COUNT(CASE WHEN a.mandatory = 1 THEN sa.actID END) = :mandatoryCount")
+    "WHERE s.FAID = :faid AND s.mandatoryCount = :mandatoryCount")
     List<StudentWithMandatoryDTO> searchStudentsByFAIDAndMandatoryCount(
             @Param("faid") int faid,
             @Param("mandatoryCount") Long mandatoryCount
     );
 
+    // Adds delta to the mandatory count of the given students
+    @Modifying
+    @Query("UPDATE Student s SET s.mandatoryCount = s.mandatoryCount + CAST(:delta AS Integer) WHERE s.sid IN :sids")
+    int adjustMandatoryCount(@Param("sids") Collection<String> sids, @Param("delta") int delta);
+
+    // Adds delta to the mandatory count of every student enrolled in the activity
+    @Modifying
+    @Query("UPDATE Student s SET s.mandatoryCount = s.mandatoryCount + CAST(:delta AS Integer) " +
+           "WHERE s.sid IN (SELECT sa.sid FROM StudentActivity sa WHERE sa.actID = :actID)")
+    int adjustMandatoryCountForActivity(@Param("actID") int actID, @Param("delta") int delta);
+
+    // Full rebuild of the mandatory counts from StudentActivity
+    @Modifying
+    @Query("UPDATE Student s SET s.mandatoryCount = (" +
+           "SELECT COUNT(sa) FROM StudentActivity sa JOIN sa.activity a " +
+           "WHERE sa.sid = s.sid AND a.mandatory = 1)")
+    int recalculateMandatoryCounts();
+
 }
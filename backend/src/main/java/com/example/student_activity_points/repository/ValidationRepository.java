@@ -24,6 +24,10 @@ public interface ValidationRepository extends CrudRepository<Validation, Long> {
     @Query("SELECT v FROM Validation v WHERE v.activity = :activity")
     List<Validation> findByActivity(@Param("activity") Activity activity);
 
+    // IDs of activities with at least one uploaded validation; reads only the actID index
+    @Query("SELECT DISTINCT v.activity.actID FROM Validation v")
+    List<Long> findUploadedActivityIds();
+
     // Corrected method to find Validation by actID and sid
     @Query(value = "SELECT * FROM Validation WHERE actID = ?1 AND SID = ?2", nativeQuery = true)
     Validation findByActIDAndSID(Long actID, String SID);
@@ -0,0 +1,37 @@
+package com.example.student_activity_points.security;
+
+import java.util.Date;
+
+/**
+ * The claims of a verified access token, read once at parse time.
+ * Immutable, so one instance can be shared by every request carrying the token.
+ */
+public final class JwtClaims {
+
+    private final String email;
+    private final String role;
+    private final String sid;
+    private final Long faid;
+    private final long expiresAtMillis;
+
+    public JwtClaims(String email, String role, String sid, Long faid, Date expiration) {
+        this.email = email;
+        this.role = role;
+        this.sid = sid;
+        this.faid = faid;
+        this.expiresAtMillis = expiration.getTime();
+    }
+
+    public String getEmail() { return email; }
+    public String getRole() { return role; }
+    public String getSid() { return sid; }
+    public Long getFaid() { return faid; }
+
+    public Date getExpiration() {
+        return new Date(expiresAtMillis);
+    }
+
+    public boolean isExpired() {
+        return expiresAtMillis < System.currentTimeMillis();
+    }
+}
@@ -34,10 +34,6 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
 
         String jwt = null;
-        String email = null;
-        String role = null;
-        String sid = null;
-        Long faid = null;
 
         // ✅ PRIORITY 1: Read JWT from httpOnly cookie
         Cookie[] cookies = request.getCookies();
@@ -62,18 +58,22 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         // ✅ Process JWT if found
         if (jwt != null && !jwt.isEmpty()) {
             try {
-                email = jwtUtil.extractEmail(jwt);
-                role = jwtUtil.extractRole(jwt);
+                // Verified once per token; repeat requests are served from JwtUtil's cache
+                JwtClaims claims = jwtUtil.parse(jwt);
+                String email = claims.getEmail();
+                String role = claims.getRole();
 
+                String sid = null;
+                Long faid = null;
                 if ("STUDENT".equals(role)) {
-                    sid = jwtUtil.extractStudentSid(jwt);
+                    sid = claims.getSid();
                 } else if ("FA".equals(role)) {
-                    faid = jwtUtil.extractFaId(jwt);
+                    faid = claims.getFaid();
                 }
 
                 // ✅ Set authentication if not already set
                 if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    if (jwtUtil.validateToken(jwt, email)) {
+                    if (!claims.isExpired()) {
                         AuthUser authUser = new AuthUser(email, role, sid, faid);
                         
                         UsernamePasswordAuthenticationToken authToken =
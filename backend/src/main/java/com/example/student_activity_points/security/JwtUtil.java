@@ -1,41 +1,113 @@
 package com.example.student_activity_points.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import jakarta.annotation.PostConstruct;
+
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies access tokens.
+ *
+ * The signing key and parser are built once at startup (both are immutable and
+ * thread-safe). A verified token is parsed into an immutable JwtClaims and kept in a
+ * small bounded cache, so the requests that follow with the same token skip the
+ * HMAC check and JSON parsing; a cached token is still rejected once it expires.
+ */
 @Component
-public class JwtUtil {
+public class JwtUtil implements MeterBinder {
 
     @Value("${myapp.secret-key}")
     private String SECRET_KEY;
 
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
+
+    @Value("${jwt.verified-cache.ttl-seconds:300}")
+    private long verifiedCacheTtlSeconds;
+
     private static final long TOKEN_VALIDITY =
             1000L * 60 * 60 * 10; // 10 hours
 
+    private Key signingKey;
+
+    private JwtParser parser;
+
+    private Cache<String, JwtClaims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfterWrite(verifiedCacheTtlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
     /* ===================== CORE ===================== */
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+    /**
+     * Verifies the token and returns its claims, from the cache when the same token
+     * was verified recently. Throws a JwtException when the token is invalid or expired.
+     */
+    public JwtClaims parse(String token) {
+        JwtClaims cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            if (cached.isExpired()) {
+                verifiedTokens.invalidate(token);
+                throw new ExpiredJwtException(null, null, "JWT expired at " + cached.getExpiration());
+            }
+            return cached;
+        }
+
+        Claims claims = extractAllClaims(token);
+        JwtClaims parsed = new JwtClaims(
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.get("sid", String.class),
+                claims.get("faid", Long.class),
+                claims.getExpiration());
+        verifiedTokens.put(token, parsed);
+        return parsed;
+    }
+
+    public CacheStats getVerifiedTokenCacheStats() {
+        return verifiedTokens.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, verifiedTokens, "verifiedTokens");
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> resolver) {
@@ -45,19 +117,19 @@ public class JwtUtil {
     /* ===================== COMMON EXTRACTORS ===================== */
 
     public String extractEmail(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return parse(token).getEmail();
     }
 
     public String extractRole(String token) {
-        return extractAllClaims(token).get("role", String.class);
+        return parse(token).getRole();
     }
 
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return parse(token).getExpiration();
     }
 
     public boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return parse(token).isExpired();
     }
 
 
@@ -78,7 +150,7 @@ public class JwtUtil {
     }
 
     public String extractStudentSid(String token) {
-        return extractAllClaims(token).get("sid", String.class);
+        return parse(token).getSid();
     }
 
     /* ===================== FA ===================== */
@@ -92,7 +164,7 @@ public class JwtUtil {
     }
 
     public Long extractFaId(String token) {
-        return extractAllClaims(token).get("faid", Long.class);
+        return parse(token).getFaid();
     }
 
     /* ===================== TOKEN CREATION ===================== */
@@ -103,13 +175,14 @@ public class JwtUtil {
                 .setSubject(subject)          // email
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + TOKEN_VALIDITY))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
         public boolean validateToken(String token, String expectedEmail) {
-            return extractEmail(token).equals(expectedEmail)
-                    && !isTokenExpired(token);
+            JwtClaims claims = parse(token);
+            return claims.getEmail().equals(expectedEmail)
+                    && !claims.isExpired();
         }
 
         // ✅ NEW - Add this simpler version
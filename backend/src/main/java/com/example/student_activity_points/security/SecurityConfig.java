@@ -50,7 +50,8 @@ public class SecurityConfig {
         "base-uri 'self'; " +
         "form-action 'self';";
 
-    private static final String CSP_POLICY = CSP_POLICY_DEV;
+    // Public so the filter chain benchmark writes the same policy
+    public static final String CSP_POLICY = CSP_POLICY_DEV;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -65,14 +66,7 @@ public class SecurityConfig {
                 .xssProtection(xss ->
                     xss.headerValue(XXssProtectionHeaderWriter.HeaderValue.ENABLED_MODE_BLOCK)
                 )
-                .addHeaderWriter((request, response) -> {
-                    response.setHeader("X-Content-Type-Options", "nosniff");
-                    response.setHeader("Referrer-Policy", "no-referrer");
-                    response.setHeader("Permissions-Policy", "geolocation=(), microphone=()");
-                    response.setHeader("Cache-Control", "no-cache, no-store, must-revalidate");
-                    response.setHeader("Pragma", "no-cache");
-                    response.setHeader("Expires", "0");
-                })
+                .addHeaderWriter(new SecurityHeadersWriter())
             )
 
             .authorizeHttpRequests(auth -> auth
@@ -95,6 +89,7 @@ public class SecurityConfig {
                 .requestMatchers("/api/student/**").hasRole("STUDENT")
                 .requestMatchers("/api/fa/**").hasRole("FA")
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 
                 .anyRequest().authenticated()
             )
@@ -153,6 +148,7 @@ public class SecurityConfig {
         ));
         configuration.addExposedHeader("Authorization");
         configuration.addExposedHeader("X-CSRF-Token");  // ✅ Expose CSRF token header
+        configuration.addExposedHeader("X-Next-Cursor");  // Keyset pagination cursor
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
@@ -2,6 +2,9 @@ package com.example.student_activity_points.service;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -9,7 +12,7 @@ import org.springframework.stereotype.Service;
 import java.util.concurrent.TimeUnit;
 
 @Service
-public class AccountLockoutService {
+public class AccountLockoutService implements MeterBinder {
     
     private static final Logger log = LoggerFactory.getLogger(AccountLockoutService.class);
     private static final int MAX_ATTEMPTS = 5;
@@ -18,7 +21,13 @@ public class AccountLockoutService {
     private final Cache<String, LockoutInfo> lockoutCache = Caffeine.newBuilder()
             .expireAfterWrite(1, TimeUnit.HOURS)
             .maximumSize(10_000)
+            .recordStats()
             .build();
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, lockoutCache, "accountLockout");
+    }
     
     /**
      * Record a failed login attempt for an email
@@ -0,0 +1,31 @@
+package com.example.student_activity_points.service;
+
+import com.example.student_activity_points.domain.Activity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener on Activity that invalidates the cached catalog on every insert,
+ * update and delete, whichever endpoint or service made the change.
+ */
+@Component
+public class ActivityCatalogInvalidator {
+
+    // Lazy: listeners are created while the EntityManagerFactory is being built
+    @Autowired
+    @Lazy
+    private ActivityCatalogService activityCatalogService;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void activityChanged(Activity activity) {
+        activityCatalogService.invalidate();
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.student_activity_points.service;
+
+import com.example.student_activity_points.domain.Activity;
+import com.example.student_activity_points.repository.ActivityRepository;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through in-memory copy of the Activity catalog.
+ *
+ * The whole table is loaded once into an immutable snapshot with name and mandatory
+ * indexes, and served from memory until an Activity is written. ActivityCatalogInvalidator
+ * drops the snapshot when the writing transaction completes and bumps the catalog version;
+ * a snapshot whose load overlapped that bump is discarded on its next read. The expiry only
+ * bounds staleness from writes made elsewhere (another instance or manual SQL).
+ */
+@Service
+public class ActivityCatalogService implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityCatalogService.class);
+
+    private static final String CATALOG_KEY = "catalog";
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final LoadingCache<String, Catalog> cache = Caffeine.newBuilder()
+            .expireAfterWrite(10, TimeUnit.MINUTES)
+            .maximumSize(1)
+            .recordStats()
+            .build(key -> load());
+
+    /** All activities in actID order; the returned list and its elements must not be modified */
+    public List<Activity> findAll() {
+        return catalog().activities;
+    }
+
+    /** Same match as the repository lookup under the case-insensitive column collation */
+    public Optional<Activity> findByName(String name) {
+        if (name == null) return Optional.empty();
+        return Optional.ofNullable(catalog().byName.get(name));
+    }
+
+    public List<Activity> findByMandatory(Integer mandatory) {
+        return catalog().byMandatory.getOrDefault(mandatory, List.of());
+    }
+
+    /**
+     * Drops the cached snapshot. Inside a transaction this is deferred until it completes,
+     * once per transaction, so a concurrent read cannot reload and keep the pre-commit
+     * state, and a snapshot read mid-transaction does not outlive a rollback.
+     */
+    public void invalidate() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateNow();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ActivityCatalogService.this);
+                invalidateNow();
+            }
+        });
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "activityCatalog");
+    }
+
+    /* ===================== INTERNAL ===================== */
+
+    private Catalog catalog() {
+        Catalog catalog = cache.get(CATALOG_KEY);
+        if (catalog.version != version.get()) {
+            // Loaded while a write was completing; drop it and read the current state
+            cache.invalidate(CATALOG_KEY);
+            catalog = cache.get(CATALOG_KEY);
+        }
+        return catalog;
+    }
+
+    private void invalidateNow() {
+        version.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private Catalog load() {
+        long loadedVersion = version.get();
+        List<Activity> activities = new ArrayList<>();
+        activityRepository.findAll().forEach(activities::add);
+        activities.sort(Comparator.comparing(Activity::getActID));
+
+        Map<String, Activity> byName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        Map<Integer, List<Activity>> byMandatory = new HashMap<>();
+        for (Activity activity : activities) {
+            if (activity.getName() != null) {
+                byName.putIfAbsent(activity.getName(), activity);
+            }
+            byMandatory.computeIfAbsent(activity.getMandatory(), key -> new ArrayList<>()).add(activity);
+        }
+        byMandatory.replaceAll((key, list) -> List.copyOf(list));
+
+        log.debug("Loaded activity catalog version {}: {} activities", loadedVersion, activities.size());
+        return new Catalog(loadedVersion, List.copyOf(activities), Collections.unmodifiableMap(byName), byMandatory);
+    }
+
+    private static final class Catalog {
+        private final long version;
+        private final List<Activity> activities;
+        private final Map<String, Activity> byName;
+        private final Map<Integer, List<Activity>> byMandatory;
+
+        Catalog(long version, List<Activity> activities,
+                Map<String, Activity> byName, Map<Integer, List<Activity>> byMandatory) {
+            this.version = version;
+            this.activities = activities;
+            this.byName = byName;
+            this.byMandatory = byMandatory;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.student_activity_points.service;
+
+import com.example.student_activity_points.dto.StudentWithFADTO;
+import com.example.student_activity_points.repository.StudentRepository;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Admin student list with FA name and email.
+ *
+ * Every variant is a single joined projection query (per page or per export batch)
+ * instead of loading each student's FA separately. Search matches SID, student name
+ * and FA name; department and FA are exact filters.
+ */
+@Service
+public class AdminStudentListService {
+
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final int EXPORT_BATCH_SIZE = 1000;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public Page<StudentWithFADTO> page(String search, Integer did, Integer faid, int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Invalid page or size");
+        }
+        return studentRepository.findWithFa(did, faid, pattern(search), PageRequest.of(page, size));
+    }
+
+    /** Every matching student in SID order */
+    public List<StudentWithFADTO> list(String search, Integer did, Integer faid) {
+        return studentRepository.findWithFaAfter("", did, faid, pattern(search), Limit.unlimited());
+    }
+
+    /**
+     * Writes every matching student as a JSON array, one keyset batch at a time, so
+     * memory use does not grow with the number of students.
+     */
+    public int export(String search, Integer did, Integer faid, OutputStream out) throws IOException {
+        String pattern = pattern(search);
+        int written = 0;
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            String after = "";
+            List<StudentWithFADTO> batch;
+            do {
+                batch = studentRepository.findWithFaAfter(after, did, faid, pattern, Limit.of(EXPORT_BATCH_SIZE));
+                for (StudentWithFADTO student : batch) {
+                    generator.writeObject(student);
+                }
+                written += batch.size();
+                if (!batch.isEmpty()) {
+                    after = batch.get(batch.size() - 1).getSid();
+                }
+                generator.flush();
+            } while (batch.size() == EXPORT_BATCH_SIZE);
+            generator.writeEndArray();
+        }
+        return written;
+    }
+
+    /* ===================== INTERNAL ===================== */
+
+    private static String pattern(String search) {
+        if (search == null || search.isBlank()) return null;
+        return "%" + StudentListQueryService.escapeLike(search.trim().toLowerCase(Locale.ROOT)) + "%";
+    }
+}
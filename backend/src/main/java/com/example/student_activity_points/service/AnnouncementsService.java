@@ -2,19 +2,179 @@ package com.example.student_activity_points.service;
 
 import com.example.student_activity_points.domain.Announcements;
 import com.example.student_activity_points.repository.AnnouncementsRepository;
+import com.example.student_activity_points.repository.StudentRepository;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Announcement feeds per FA, held in memory, and the fan-out when an FA posts.
+ *
+ * A feed is loaded once per FAID and then served from memory; a new announcement is
+ * appended to its FA's feed when the posting transaction commits. Student polls look up
+ * the student's FA in memory as well, so a poll normally touches no database. The expiry
+ * only bounds staleness from writes made elsewhere (another instance or manual SQL).
+ *
+ * Posting also queues one notification email per student of the FA in the mail outbox,
+ * in the same transaction as the announcement.
+ */
 @Service
-public class AnnouncementsService {
+public class AnnouncementsService implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(AnnouncementsService.class);
 
     @Autowired
     private AnnouncementsRepository announcementsRepository;
 
-    // Fetch announcements for a specific FAID
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Value("${announcements.notify-students:true}")
+    private boolean notifyStudents;
+
+    @Value("${app.frontend.base-url}")
+    private String frontendBaseUrl;
+
+    private final LoadingCache<Integer, Feed> feeds = Caffeine.newBuilder()
+            .expireAfterWrite(10, TimeUnit.MINUTES)
+            .maximumSize(1_000)
+            .recordStats()
+            .build(this::load);
+
+    // sid -> FAID; dropped by forgetStudents when an admin reassigns or deletes the student
+    private final LoadingCache<String, Optional<Integer>> studentFaids = Caffeine.newBuilder()
+            .expireAfterWrite(10, TimeUnit.MINUTES)
+            .maximumSize(50_000)
+            .recordStats()
+            .build(sid -> studentRepository.findFaidBySid(sid));
+
+    // Fetch announcements for a specific FAID, oldest first
     public List<Announcements> getAnnouncementsByFAID(Integer faid) {
-        return announcementsRepository.findByFAID(faid);
+        return feeds.get(faid).announcements;
+    }
+
+    /** Announcements of the FA dated after since (exclusive), oldest first; all of them when since is null */
+    public List<Announcements> getAnnouncementsSince(Integer faid, Date since) {
+        List<Announcements> announcements = getAnnouncementsByFAID(faid);
+        if (since == null) return announcements;
+
+        // Sorted by date, so the delta is a tail of the list
+        int from = announcements.size();
+        while (from > 0 && announcements.get(from - 1).getDate().after(since)) {
+            from--;
+        }
+        return announcements.subList(from, announcements.size());
+    }
+
+    /** The FA the student is assigned to, or empty if there is no such student */
+    public Optional<Integer> findFaidOfStudent(String sid) {
+        return studentFaids.get(sid);
+    }
+
+    public void forgetStudent(String sid) {
+        forgetStudents(List.of(sid));
+    }
+
+    /**
+     * Drops the cached FA of these students. Inside a transaction this is deferred until
+     * it completes, so a poll racing the write cannot reload and keep the old FAID.
+     */
+    public void forgetStudents(Collection<String> sids) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            studentFaids.invalidateAll(sids);
+            return;
+        }
+        List<String> forgotten = List.copyOf(sids);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                studentFaids.invalidateAll(forgotten);
+            }
+        });
+    }
+
+    /**
+     * Saves the announcement, stamped with the current time so the since-delta of the
+     * feed follows posting order, and queues the student notifications.
+     */
+    @Transactional
+    public Announcements post(Announcements announcement) {
+        announcement.setDate(new Date());
+        Announcements saved = announcementsRepository.save(announcement);
+
+        if (notifyStudents) {
+            int queued = emailService.sendToStudentsOfFa(saved.getFaid(),
+                    "New announcement: " + saved.getTitle(), notificationText(saved));
+            log.info("Queued {} notification emails for announcement {} of FA {}",
+                    queued, saved.getAid(), saved.getFaid());
+        }
+
+        // Only committed announcements reach the feed
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                feeds.asMap().computeIfPresent(saved.getFaid(), (faid, feed) -> feed.with(saved));
+            }
+        });
+        return saved;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, feeds, "announcementFeeds");
+        CaffeineCacheMetrics.monitor(registry, studentFaids, "studentFaids");
+    }
+
+    /* ===================== INTERNAL ===================== */
+
+    private Feed load(Integer faid) {
+        List<Announcements> announcements = announcementsRepository.findByFAIDOrderByDateAscAidAsc(faid);
+        log.debug("Loaded announcement feed of FA {}: {} announcements", faid, announcements.size());
+        return new Feed(List.copyOf(announcements));
+    }
+
+    private String notificationText(Announcements announcement) {
+        return "Your faculty advisor posted a new announcement: " + announcement.getTitle() + "\n\n" +
+               announcement.getBody() + "\n\n" +
+               "View it at " + frontendBaseUrl + "/student/announcements/" + announcement.getAid();
+    }
+
+    /** Immutable; a post replaces the feed with a copy that has the announcement appended */
+    private static final class Feed {
+        private final List<Announcements> announcements;
+
+        Feed(List<Announcements> announcements) {
+            this.announcements = announcements;
+        }
+
+        Feed with(Announcements announcement) {
+            // A load that ran after the commit already has it
+            for (int i = announcements.size() - 1; i >= 0; i--) {
+                if (announcements.get(i).getAid().equals(announcement.getAid())) return this;
+            }
+            List<Announcements> appended = new ArrayList<>(announcements.size() + 1);
+            appended.addAll(announcements);
+            appended.add(announcement);
+            return new Feed(List.copyOf(appended));
+        }
     }
 }
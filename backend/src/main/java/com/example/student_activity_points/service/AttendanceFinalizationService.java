@@ -0,0 +1,174 @@
+package com.example.student_activity_points.service;
+
+import com.example.student_activity_points.domain.Activity;
+import com.example.student_activity_points.domain.PointsLedger;
+import com.example.student_activity_points.domain.StudentActivity;
+import com.example.student_activity_points.repository.ActivityRepository;
+import com.example.student_activity_points.repository.StudentActivityRepository;
+import com.example.student_activity_points.repository.StudentRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Set-based attendance finalization.
+ *
+ * Resolves students and existing enrollments with chunked IN queries, inserts the
+ * StudentActivity rows through Hibernate JDBC batching and credits points with one
+ * UPDATE per chunk instead of four round trips per student.
+ */
+@Service
+public class AttendanceFinalizationService {
+
+    private static final Logger log = LoggerFactory.getLogger(AttendanceFinalizationService.class);
+
+    // Keeps IN lists well below driver/packet limits
+    private static final int IN_CHUNK_SIZE = 1000;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentActivityRepository studentActivityRepository;
+
+    @Autowired
+    private MandatoryCountService mandatoryCountService;
+
+    @Autowired
+    private StudentPointsService studentPointsService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}")
+    private int batchSize;
+
+    /**
+     * Enrolls the given students in the activity and credits their points.
+     * The skipped report lists one entry per rejected SID, in input order.
+     */
+    @Transactional
+    public FinalizationResult finalizeAttendance(Activity activity, List<String> sids) {
+        int actId = activity.getActID().intValue();
+        int points = activity.getPoints();
+        String category = activity.getType();
+        boolean knownCategory = StudentPointsService.isKnownCategory(category);
+
+        // Mark activity as uploaded
+        activity.setIsuploaded(true);
+        activityRepository.save(activity);
+
+        List<String> candidates = sids.stream()
+                .filter(sid -> sid != null && !sid.isBlank())
+                .distinct()
+                .toList();
+
+        // SID comparisons follow the case-insensitive column collation
+        Set<String> existing = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        existing.addAll(inChunks(candidates, studentRepository::findExistingSids));
+
+        Set<String> enrolled = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        enrolled.addAll(inChunks(candidates,
+                chunk -> studentActivityRepository.findEnrolledSids(actId, chunk)));
+
+        List<String> skipped = new ArrayList<>();
+        List<String> inserted = new ArrayList<>();
+        List<String> toCredit = new ArrayList<>();
+        Date now = new Date();
+        int pending = 0;
+
+        for (String sid : sids) {
+            if (sid == null || sid.isBlank()) {
+                skipped.add("Invalid student ID: empty or null");
+                continue;
+            }
+
+            if (!existing.contains(sid)) {
+                skipped.add("Student not found: " + sid);
+                continue;
+            }
+
+            // A repeated SID counts as enrolled once its first occurrence is queued
+            if (!enrolled.add(sid)) {
+                skipped.add("Already enrolled: " + sid);
+                continue;
+            }
+
+            StudentActivity studentActivity = new StudentActivity();
+            studentActivity.setActID(actId);
+            studentActivity.setSid(sid);
+            studentActivity.setPoints(points);
+            studentActivity.setValidated(StudentActivity.Validated.Yes);
+            studentActivity.setDate(now);
+            studentActivity.setTitle(activity.getName());
+            studentActivity.setActivityType(category);
+            entityManager.persist(studentActivity);
+            inserted.add(sid);
+
+            if (++pending % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+
+            if (!knownCategory) {
+                skipped.add("Unknown category for student " + sid);
+                continue;
+            }
+            toCredit.add(sid);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        if (!knownCategory && pending > 0) {
+            log.warn("Unknown category for activity {}: {}", actId, category);
+        }
+
+        for (int from = 0; from < toCredit.size(); from += IN_CHUNK_SIZE) {
+            List<String> chunk = toCredit.subList(from, Math.min(from + IN_CHUNK_SIZE, toCredit.size()));
+            studentPointsService.credit(PointsLedger.Source.ATTENDANCE, String.valueOf(actId), category, chunk, points);
+        }
+
+        for (int from = 0; from < inserted.size(); from += IN_CHUNK_SIZE) {
+            mandatoryCountService.recordEnrollments(activity,
+                    inserted.subList(from, Math.min(from + IN_CHUNK_SIZE, inserted.size())));
+        }
+
+        log.debug("Finalized activity {}: {} inserted, {} credited", actId, pending, toCredit.size());
+        return new FinalizationResult(toCredit.size(), skipped);
+    }
+
+    private static List<String> inChunks(List<String> values, Function<List<String>, List<String>> query) {
+        List<String> result = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += IN_CHUNK_SIZE) {
+            result.addAll(query.apply(values.subList(from, Math.min(from + IN_CHUNK_SIZE, values.size()))));
+        }
+        return result;
+    }
+
+    public static class FinalizationResult {
+        private final int successCount;
+        private final List<String> skipped;
+
+        public FinalizationResult(int successCount, List<String> skipped) {
+            this.successCount = successCount;
+            this.skipped = List.copyOf(skipped);
+        }
+
+        public int getSuccessCount() { return successCount; }
+        public List<String> getSkipped() { return skipped; }
+    }
+}
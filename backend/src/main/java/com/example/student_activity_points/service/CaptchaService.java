@@ -1,7 +1,10 @@
 package com.example.student_activity_points.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
@@ -21,6 +24,9 @@ public class CaptchaService {
     
     @Value("${captcha.test-mode:false}")
     private boolean testMode;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
     
     /**
      * Verify CAPTCHA token with Google reCAPTCHA
@@ -38,6 +44,8 @@ public class CaptchaService {
             return false;
         }
         
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
         try {
             RestTemplate restTemplate = new RestTemplate();
             
@@ -57,9 +65,11 @@ public class CaptchaService {
             Map<String, Object> responseBody = response.getBody();
             
             if (responseBody != null && Boolean.TRUE.equals(responseBody.get("success"))) {
+                outcome = "success";
                 log.info("CAPTCHA verification successful");
                 return true;
             } else {
+                outcome = "failure";
                 log.warn("CAPTCHA verification failed: {}", responseBody);
                 return false;
             }
@@ -67,6 +77,8 @@ public class CaptchaService {
         } catch (Exception e) {
             log.error("Error verifying CAPTCHA: {}", e.getMessage());
             return false;
+        } finally {
+            sample.stop(meterRegistry.timer("external.recaptcha.verify", "outcome", outcome));
         }
     }
 }
\ No newline at end of file
@@ -1,29 +1,53 @@
 package com.example.student_activity_points.service;
 
 import com.example.student_activity_points.util.ExcelFileValidationUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.net.Socket;
-import java.nio.ByteBuffer;
-import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * ClamAV antivirus service implementation
  * This is a basic implementation that connects to ClamAV daemon
- * 
+ *
  * To use this, you need to have ClamAV installed and running:
  * - Linux: sudo apt-get install clamav clamav-daemon
  * - Mac: brew install clamav
  * - Windows: Download from https://www.clamav.net/downloads
- * 
+ *
  * Start the daemon: sudo systemctl start clamav-daemon
+ *
+ * Scans run on a small dedicated pool, one per pooled clamd connection, with a bounded
+ * queue, so a burst of uploads waits for a connection instead of each opening its own.
+ * After repeated connection failures a circuit breaker fails scans fast (uploads are
+ * rejected, as before) until clamd has had time to recover.
+ *
+ * Clean verdicts are remembered by content SHA-256 and clamd signature version, so
+ * resubmitting the same file skips clamd. The version is polled, and the remembered
+ * verdicts are dropped when clamd loads a new signature database.
  */
 @Service
 public class ClamAvAntivirusService implements ExcelFileValidationUtil.AntivirusService {
@@ -42,81 +66,176 @@ public class ClamAvAntivirusService implements ExcelFileValidationUtil.Antivirus
     @Value("${antivirus.timeout:30000}")
     private int timeout;
 
-    private static final int CHUNK_SIZE = 2048;
+    @Value("${antivirus.clamav.max-connections:8}")
+    private int maxConnections;
+
+    @Value("${antivirus.clamav.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${antivirus.clamav.chunk-size:65536}")
+    private int chunkSize;
+
+    @Value("${antivirus.clamav.idle-timeout:20000}")
+    private long idleTimeout;
+
+    @Value("${antivirus.clamav.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${antivirus.clamav.circuit-breaker.open-duration:30000}")
+    private long openDuration;
+
+    @Value("${antivirus.clamav.verdict-cache.max-size:10000}")
+    private long verdictCacheMaxSize;
+
+    @Value("${antivirus.clamav.verdict-cache.ttl-hours:24}")
+    private long verdictCacheTtlHours;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ClamdClient client;
+
+    private ExecutorService executor;
+
+    private CircuitBreaker circuitBreaker;
+
+    // Keys are "<sha256>/<signature version>"
+    private Cache<String, Boolean> cleanVerdicts;
+
+    // Null until clamd has answered VERSION; nothing is cached before that
+    private volatile String signatureVersion;
+
+    @PostConstruct
+    void init() {
+        if (!antivirusEnabled) return;
+
+        client = new ClamdClient(clamavHost, clamavPort, timeout, maxConnections, chunkSize, idleTimeout);
+        circuitBreaker = new CircuitBreaker(failureThreshold, openDuration);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                maxConnections, maxConnections, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "clamav-scan-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "clamavScan");
+
+        Gauge.builder("antivirus.clamav.circuit.open", circuitBreaker, breaker -> breaker.isOpen() ? 1 : 0)
+                .description("1 while scans fail fast because clamd is unreachable")
+                .register(meterRegistry);
+
+        cleanVerdicts = Caffeine.newBuilder()
+                .maximumSize(verdictCacheMaxSize)
+                .expireAfterWrite(Duration.ofHours(verdictCacheTtlHours))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cleanVerdicts, "clamavVerdicts");
+    }
+
+    /**
+     * Picks up signature database updates (freshclam reloads clamd in place) and drops
+     * the verdicts made with the previous database.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${antivirus.clamav.version-check-interval:60000}")
+    void refreshSignatureVersion() {
+        if (!antivirusEnabled || circuitBreaker.isOpen()) return;
+
+        try {
+            String version = client.signatureVersion();
+            String previous = signatureVersion;
+            if (!version.equals(previous)) {
+                signatureVersion = version;
+                cleanVerdicts.invalidateAll();
+                log.info("ClamAV signature version {} (was {}), scan verdict cache cleared", version, previous);
+            }
+        } catch (IOException e) {
+            log.warn("Unable to read ClamAV signature version: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) executor.shutdownNow();
+        if (client != null) client.close();
+    }
 
     @Override
     public boolean isFileSafe(MultipartFile file) throws IOException {
+        return isSafe(file, null, file.getOriginalFilename());
+    }
+
+    /**
+     * Blocking scan of any re-readable content, e.g. an upload already staged to disk.
+     * Pass its SHA-256 when known so a resubmitted file is answered from the verdict cache.
+     * Fails secure: false when the scan cannot complete.
+     */
+    public boolean isSafe(InputStreamSource content, String sha256, String name) {
         // If antivirus is disabled, return true (consider file safe)
         if (!antivirusEnabled) {
             log.debug("Antivirus scanning is disabled");
             return true;
         }
 
+        CompletableFuture<Boolean> scan = scanAsync(content, sha256);
         try {
-            return scanFile(file.getInputStream());
-        } catch (IOException e) {
-            log.error("Error during virus scan for file: {}", file.getOriginalFilename(), e);
-            // Fail secure: if scan fails, reject the file
-            return false;
+            return scan.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            scan.cancel(false);
+            log.error("Virus scan timed out for file: {}", name);
+        } catch (ExecutionException e) {
+            log.error("Virus scan failed for file: {} ({})", name, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+        // Fail secure: if scan fails, reject the file
+        return false;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> scanAsync(MultipartFile file) {
+        return scanAsync(file, null);
     }
 
     /**
-     * Scans file using ClamAV INSTREAM command
+     * Scans on the scan pool. Completes with true when clamd reports the content clean,
+     * false when it finds a signature or rejects the stream, and exceptionally when clamd
+     * cannot be reached, the queue is full or the circuit breaker is open.
+     *
+     * Content already found clean under the current signature version completes at once.
+     * Pass its SHA-256 when the caller has computed it; otherwise it is computed here.
      */
-    private boolean scanFile(InputStream inputStream) throws IOException {
-        try (Socket socket = new Socket(clamavHost, clamavPort)) {
-            socket.setSoTimeout(timeout);
-
-            // Send INSTREAM command
-            OutputStream outStream = socket.getOutputStream();
-            outStream.write("zINSTREAM\0".getBytes(StandardCharsets.UTF_8));
-            outStream.flush();
-
-            // Send file in chunks
-            byte[] buffer = new byte[CHUNK_SIZE];
-            int bytesRead;
-
-            while ((bytesRead = inputStream.read(buffer)) != -1) {
-                // Send chunk size (4 bytes, network byte order)
-                outStream.write(ByteBuffer.allocate(4).putInt(bytesRead).array());
-                // Send chunk data
-                outStream.write(buffer, 0, bytesRead);
-                outStream.flush();
-            }
+    public CompletableFuture<Boolean> scanAsync(InputStreamSource content, String sha256) {
+        if (!antivirusEnabled) {
+            return CompletableFuture.completedFuture(true);
+        }
 
-            // Send zero-length chunk to indicate end of stream
-            outStream.write(new byte[]{0, 0, 0, 0});
-            outStream.flush();
-
-            // Read response
-            byte[] response = new byte[1024];
-            int responseLength = socket.getInputStream().read(response);
-            
-            if (responseLength > 0) {
-                String result = new String(response, 0, responseLength, StandardCharsets.UTF_8).trim();
-                log.debug("ClamAV scan result: {}", result);
-
-                // ClamAV returns "stream: OK" if file is clean
-                // ClamAV returns "stream: <virus-name> FOUND" if virus detected
-                if (result.contains("OK")) {
-                    return true;
-                } else if (result.contains("FOUND")) {
-                    log.warn("Virus detected: {}", result);
-                    return false;
-                } else {
-                    log.error("Unexpected ClamAV response: {}", result);
-                    // Fail secure
-                    return false;
+        String version = signatureVersion;
+        if (version != null) {
+            try {
+                String hash = sha256 != null ? sha256 : sha256(content);
+                if (cleanVerdicts.getIfPresent(hash + "/" + version) != null) {
+                    log.debug("ClamAV verdict cache hit for {}", hash);
+                    return CompletableFuture.completedFuture(true);
                 }
+            } catch (IOException e) {
+                log.debug("Unable to hash content for the verdict cache: {}", e.getMessage());
             }
+        }
 
-            log.error("No response received from ClamAV");
-            return false;
+        if (!circuitBreaker.allowRequest()) {
+            return CompletableFuture.failedFuture(new IOException("ClamAV unavailable (circuit open)"));
+        }
 
-        } catch (IOException e) {
-            log.error("Failed to connect to ClamAV daemon at {}:{}", clamavHost, clamavPort, e);
-            throw e;
+        try {
+            return CompletableFuture.supplyAsync(() -> scan(content, version), executor)
+                    .orTimeout(timeout, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            circuitBreaker.release();
+            return CompletableFuture.failedFuture(new IOException("ClamAV scan queue is full", e));
         }
     }
 
@@ -128,27 +247,109 @@ public class ClamAvAntivirusService implements ExcelFileValidationUtil.Antivirus
             return false;
         }
 
-        try (Socket socket = new Socket(clamavHost, clamavPort)) {
-            socket.setSoTimeout(5000);
-            OutputStream outStream = socket.getOutputStream();
-            
-            // Send PING command
-            outStream.write("zPING\0".getBytes(StandardCharsets.UTF_8));
-            outStream.flush();
-
-            // Read response
-            byte[] response = new byte[256];
-            int length = socket.getInputStream().read(response);
-            
-            if (length > 0) {
-                String result = new String(response, 0, length, StandardCharsets.UTF_8).trim();
-                return "PONG".equals(result);
-            }
-            
-            return false;
+        try {
+            return client.ping();
         } catch (IOException e) {
             log.warn("ClamAV is not available at {}:{}", clamavHost, clamavPort);
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /* ===================== INTERNAL ===================== */
+
+    private boolean scan(InputStreamSource content, String version) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            ClamdClient.ScanResult result = client.scan(content);
+            circuitBreaker.recordSuccess();
+            log.debug("ClamAV scan result: {}", result.getReply());
+
+            switch (result.getStatus()) {
+                case CLEAN:
+                    outcome = "clean";
+                    // Only under the version the scan started with; a reload mid-scan skips caching
+                    if (version != null && version.equals(signatureVersion)) {
+                        cleanVerdicts.put(result.getSha256() + "/" + version, Boolean.TRUE);
+                    }
+                    return true;
+                case INFECTED:
+                    outcome = "rejected";
+                    log.warn("Virus detected: {}", result.getReply());
+                    return false;
+                default:
+                    outcome = "rejected";
+                    log.error("Unexpected ClamAV response: {}", result.getReply());
+                    return false;
+            }
+        } catch (ClamdClient.SourceReadException e) {
+            // Not a clamd failure, so it neither trips the breaker nor counts as a trial
+            circuitBreaker.release();
+            log.error("Unable to read the content to scan", e);
+            throw new CompletionException(e);
+        } catch (IOException e) {
+            circuitBreaker.recordFailure();
+            log.error("Failed to scan with ClamAV daemon at {}:{}", clamavHost, clamavPort, e);
+            throw new CompletionException(e);
+        } finally {
+            sample.stop(meterRegistry.timer("external.clamav.scan", "outcome", outcome));
+        }
+    }
+
+    private static String sha256(InputStreamSource content) throws IOException {
+        MessageDigest digest = ClamdClient.newDigest();
+        try (InputStream in = content.getInputStream();
+             OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            in.transferTo(out);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Opens after failureThreshold consecutive clamd connection failures. Once openDuration has
+     * passed, a single trial scan is let through; its outcome closes or reopens the circuit.
+     */
+    static final class CircuitBreaker {
+
+        private final int failureThreshold;
+        private final long openDurationMs;
+
+        private int consecutiveFailures;
+        private long openUntil;
+        private boolean trialInFlight;
+
+        CircuitBreaker(int failureThreshold, long openDurationMs) {
+            this.failureThreshold = failureThreshold;
+            this.openDurationMs = openDurationMs;
+        }
+
+        synchronized boolean allowRequest() {
+            if (consecutiveFailures < failureThreshold) return true;
+            if (trialInFlight || System.currentTimeMillis() < openUntil) return false;
+            trialInFlight = true;
+            return true;
+        }
+
+        synchronized void recordSuccess() {
+            consecutiveFailures = 0;
+            trialInFlight = false;
+        }
+
+        synchronized void recordFailure() {
+            consecutiveFailures++;
+            trialInFlight = false;
+            if (consecutiveFailures >= failureThreshold) {
+                openUntil = System.currentTimeMillis() + openDurationMs;
+            }
+        }
+
+        // An allowed request that never ran
+        synchronized void release() {
+            trialInFlight = false;
+        }
+
+        synchronized boolean isOpen() {
+            return consecutiveFailures >= failureThreshold;
+        }
+    }
+}
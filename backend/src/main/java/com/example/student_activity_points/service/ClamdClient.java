@@ -0,0 +1,367 @@
+package com.example.student_activity_points.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.InputStreamSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Minimal clamd client over a pool of long-lived IDSESSION connections.
+ *
+ * Each connection runs one command at a time; at most maxConnections are open, and a
+ * caller waits up to the I/O timeout for one to free up. Files are streamed with
+ * INSTREAM in large chunks from a direct buffer owned by the connection. clamd drops
+ * idle sessions on its side, so a connection idle for longer than idleTimeoutMs is
+ * closed rather than reused, and a reused connection that fails is retried once on a
+ * fresh one. A failure to read the content being scanned is not clamd's doing; it is
+ * thrown as SourceReadException and not retried.
+ *
+ * The SHA-256 of the content is computed from the chunks as they are sent, so a scan
+ * result names exactly the bytes clamd saw.
+ */
+class ClamdClient implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ClamdClient.class);
+
+    private static final byte[] IDSESSION = command("IDSESSION");
+    private static final byte[] INSTREAM = command("INSTREAM");
+    private static final byte[] PING = command("PING");
+    private static final byte[] VERSION = command("VERSION");
+    private static final byte[] END = command("END");
+
+    private static final int MAX_REPLY_BYTES = 4096;
+
+    private final String host;
+    private final int port;
+    private final int timeoutMs;
+    private final int chunkSize;
+    private final long idleTimeoutMs;
+
+    private final Semaphore permits;
+    private final BlockingQueue<Session> idle;
+
+    private volatile boolean closed;
+
+    ClamdClient(String host, int port, int timeoutMs, int maxConnections, int chunkSize, long idleTimeoutMs) {
+        this.host = host;
+        this.port = port;
+        this.timeoutMs = timeoutMs;
+        this.chunkSize = chunkSize;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.permits = new Semaphore(maxConnections);
+        this.idle = new ArrayBlockingQueue<>(maxConnections);
+    }
+
+    /**
+     * Streams the content to clamd. Throws SourceReadException when the content cannot be
+     * read, and any other IOException when clamd cannot be reached or stops responding.
+     */
+    ScanResult scan(InputStreamSource source) throws IOException {
+        return execute(session -> {
+            MessageDigest digest = newDigest();
+            InputStream opened;
+            try {
+                opened = source.getInputStream();
+            } catch (IOException e) {
+                throw new SourceReadException(e);
+            }
+            try (InputStream in = opened) {
+                String reply = session.instream(in, digest);
+                return ScanResult.parse(reply, HexFormat.of().formatHex(digest.digest()));
+            }
+        });
+    }
+
+    /** The signature database version, e.g. 27000 from "ClamAV 1.0.0/27000/Mon Oct  6 08:00:00 2025" */
+    String signatureVersion() throws IOException {
+        String reply = execute(session -> session.request(VERSION));
+        String[] parts = reply.split("/");
+        return parts.length > 1 ? parts[1] : reply;
+    }
+
+    boolean ping() throws IOException {
+        return execute(session -> "PONG".equals(session.request(PING)));
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Session session;
+        while ((session = idle.poll()) != null) {
+            session.close();
+        }
+    }
+
+    /* ===================== INTERNAL ===================== */
+
+    private interface SessionCall<T> {
+        T call(Session session) throws IOException;
+    }
+
+    private <T> T execute(SessionCall<T> call) throws IOException {
+        try {
+            if (!permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SocketTimeoutException("No clamd connection free within " + timeoutMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for a clamd connection", e);
+        }
+
+        try {
+            Session session = takeIdle();
+            if (session != null) {
+                try {
+                    T result = call.call(session);
+                    release(session);
+                    return result;
+                } catch (SourceReadException e) {
+                    // The stream was cut off mid-command, so the session cannot be reused
+                    session.close();
+                    throw e;
+                } catch (IOException e) {
+                    // Most likely closed by clamd while idle
+                    log.debug("Reused clamd session failed, retrying on a new one: {}", e.getMessage());
+                    session.close();
+                } catch (RuntimeException e) {
+                    session.close();
+                    throw e;
+                }
+            }
+
+            session = new Session();
+            try {
+                T result = call.call(session);
+                release(session);
+                return result;
+            } catch (IOException | RuntimeException e) {
+                session.close();
+                throw e;
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private Session takeIdle() {
+        Session session;
+        while ((session = idle.poll()) != null) {
+            if (System.currentTimeMillis() - session.lastUsed < idleTimeoutMs) {
+                return session;
+            }
+            session.close();
+        }
+        return null;
+    }
+
+    private void release(Session session) {
+        session.lastUsed = System.currentTimeMillis();
+        if (closed || !idle.offer(session)) {
+            session.close();
+        }
+    }
+
+    private static byte[] command(String name) {
+        return ("z" + name + "\0").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /** One IDSESSION connection; used by one thread at a time */
+    private final class Session {
+
+        private final SocketChannel channel;
+        private final Selector selector;
+        private final SelectionKey key;
+        private final ByteBuffer chunk = ByteBuffer.allocateDirect(4 + chunkSize);
+        private final ByteBuffer reply = ByteBuffer.allocate(MAX_REPLY_BYTES);
+
+        private int nextId = 1;
+        private long lastUsed;
+
+        Session() throws IOException {
+            channel = SocketChannel.open();
+            selector = Selector.open();
+            try {
+                channel.configureBlocking(false);
+                key = channel.register(selector, SelectionKey.OP_CONNECT);
+                channel.connect(new InetSocketAddress(host, port));
+                while (!channel.finishConnect()) {
+                    await(SelectionKey.OP_CONNECT, "connecting");
+                }
+                write(ByteBuffer.wrap(IDSESSION));
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+        }
+
+        String request(byte[] command) throws IOException {
+            write(ByteBuffer.wrap(command));
+            return readReply();
+        }
+
+        String instream(InputStream in, MessageDigest digest) throws IOException {
+            write(ByteBuffer.wrap(INSTREAM));
+
+            ReadableByteChannel source = Channels.newChannel(in);
+            boolean eof = false;
+            while (!eof) {
+                chunk.clear();
+                chunk.position(4);
+                while (chunk.hasRemaining()) {
+                    if (readSource(source) < 0) {
+                        eof = true;
+                        break;
+                    }
+                }
+                int length = chunk.position() - 4;
+                if (length == 0) break;
+                chunk.putInt(0, length);
+                chunk.flip();
+                digest.update(chunk.slice(4, length));
+                write(chunk);
+            }
+
+            // Zero-length chunk ends the stream
+            chunk.clear();
+            chunk.putInt(0);
+            chunk.flip();
+            write(chunk);
+
+            return readReply();
+        }
+
+        private int readSource(ReadableByteChannel source) throws SourceReadException {
+            try {
+                return source.read(chunk);
+            } catch (IOException e) {
+                throw new SourceReadException(e);
+            }
+        }
+
+        // Replies in a session are "<id>: <reply>\0"
+        private String readReply() throws IOException {
+            int id = nextId++;
+            reply.clear();
+            while (true) {
+                int terminator = indexOfNul(reply);
+                if (terminator >= 0) {
+                    String text = new String(reply.array(), 0, terminator, StandardCharsets.US_ASCII).trim();
+                    String prefix = id + ": ";
+                    if (!text.startsWith(prefix)) {
+                        throw new IOException("Unexpected clamd reply for request " + id + ": " + text);
+                    }
+                    return text.substring(prefix.length());
+                }
+                if (!reply.hasRemaining()) {
+                    throw new IOException("clamd reply too long");
+                }
+                int read = channel.read(reply);
+                if (read < 0) {
+                    throw new IOException("clamd closed the connection");
+                }
+                if (read == 0) {
+                    await(SelectionKey.OP_READ, "waiting for a reply");
+                }
+            }
+        }
+
+        private void write(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                if (channel.write(buffer) == 0) {
+                    await(SelectionKey.OP_WRITE, "sending");
+                }
+            }
+        }
+
+        private void await(int operation, String what) throws IOException {
+            key.interestOps(operation);
+            selector.selectedKeys().clear();
+            if (selector.select(timeoutMs) == 0) {
+                throw new SocketTimeoutException("clamd timed out " + what + " after " + timeoutMs + " ms");
+            }
+        }
+
+        private int indexOfNul(ByteBuffer buffer) {
+            byte[] bytes = buffer.array();
+            for (int i = 0; i < buffer.position(); i++) {
+                if (bytes[i] == 0) return i;
+            }
+            return -1;
+        }
+
+        void close() {
+            try {
+                if (channel.isConnected()) {
+                    channel.write(ByteBuffer.wrap(END));
+                }
+            } catch (IOException ignored) {
+                // Closing anyway
+            }
+            try {
+                selector.close();
+                channel.close();
+            } catch (IOException e) {
+                log.debug("Error closing clamd connection", e);
+            }
+        }
+    }
+
+    /** The content to scan could not be read; says nothing about clamd */
+    static final class SourceReadException extends IOException {
+        SourceReadException(IOException cause) {
+            super("Unable to read the content to scan: " + cause.getMessage(), cause);
+        }
+    }
+
+    static final class ScanResult {
+
+        enum Status { CLEAN, INFECTED, ERROR }
+
+        private final Status status;
+        private final String reply;
+        private final String sha256;
+
+        private ScanResult(Status status, String reply, String sha256) {
+            this.status = status;
+            this.reply = reply;
+            this.sha256 = sha256;
+        }
+
+        // "stream: OK", "stream: <signature> FOUND" or "<message> ERROR"
+        static ScanResult parse(String reply, String sha256) {
+            if (reply.endsWith("FOUND")) return new ScanResult(Status.INFECTED, reply, sha256);
+            if (reply.endsWith(": OK")) return new ScanResult(Status.CLEAN, reply, sha256);
+            return new ScanResult(Status.ERROR, reply, sha256);
+        }
+
+        Status getStatus() { return status; }
+        String getReply() { return reply; }
+        String getSha256() { return sha256; }
+    }
+}
@@ -2,6 +2,9 @@ package com.example.student_activity_points.service;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -11,7 +14,7 @@ import java.util.Base64;
 import java.util.concurrent.TimeUnit;
 
 @Service
-public class CsrfTokenService {
+public class CsrfTokenService implements MeterBinder {
     
     private static final Logger log = LoggerFactory.getLogger(CsrfTokenService.class);
     
@@ -19,7 +22,13 @@ public class CsrfTokenService {
     private final Cache<String, String> csrfTokenCache = Caffeine.newBuilder()
             .expireAfterWrite(1, TimeUnit.HOURS)
             .maximumSize(10_000)
+            .recordStats()
             .build();
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, csrfTokenCache, "csrfTokens");
+    }
     
     /**
      * Generate a new CSRF token for a session/user
@@ -1,21 +1,39 @@
 package com.example.student_activity_points.service;
 
+import com.example.student_activity_points.domain.MailOutbox;
+import com.example.student_activity_points.repository.MailOutboxRepository;
+
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+
+/**
+ * Queues outgoing email in the mail_outbox table; MailOutboxDispatcher sends it with
+ * retries. Callers pay for one INSERT and never wait on SMTP.
+ */
 @Service
 public class EmailService {
 
     @Autowired
-    private JavaMailSender mailSender;
+    private MailOutboxRepository mailOutboxRepository;
 
     public void sendEmail(String to, String subject, String text) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(text);
-        mailSender.send(message);
+        mailOutboxRepository.save(new MailOutbox(to, truncate(subject), text));
+    }
+
+    /** Queues the same message for every student assigned to the FA; returns how many were queued */
+    public int sendToStudentsOfFa(int faid, String subject, String text) {
+        return mailOutboxRepository.queueForStudentsOfFa(faid, truncate(subject), text,
+                MailOutbox.Status.PENDING, LocalDateTime.now());
+    }
+
+    // Subjects built from user input (announcement titles) may outgrow the column
+    private static String truncate(String subject) {
+        if (subject.length() <= MailOutbox.MAX_SUBJECT_LENGTH) return subject;
+        int end = MailOutbox.MAX_SUBJECT_LENGTH;
+        // Do not split a surrogate pair
+        if (Character.isHighSurrogate(subject.charAt(end - 1))) end--;
+        return subject.substring(0, end);
     }
 }
@@ -0,0 +1,150 @@
+package com.example.student_activity_points.service;
+
+import com.example.student_activity_points.util.ExcelFileValidationUtil;
+import com.example.student_activity_points.util.ExcelRow;
+import com.example.student_activity_points.util.StreamingExcelReader;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Shared engine behind the bulk Excel upload endpoints.
+ *
+ * Streams the first sheet through StreamingExcelReader, checks the header row, maps
+ * each data row with a typed RowMapper and hands the mapped rows to a ChunkWriter in
+ * fixed-size chunks, so writers can dedupe with one IN lookup per chunk and insert
+ * with JDBC batching. The whole upload runs in one transaction.
+ */
+@Service
+public class ExcelIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExcelIngestionService.class);
+
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}")
+    private int batchSize;
+
+    /**
+     * Maps a data row to a typed value, or returns null when the row is invalid
+     */
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        T map(ExcelRow row);
+    }
+
+    /**
+     * Persists one chunk of mapped rows and records written/skipped counts on the result
+     */
+    @FunctionalInterface
+    public interface ChunkWriter<T> {
+        void write(List<T> chunk, IngestionResult result);
+    }
+
+    @Transactional(rollbackFor = Exception.class)
+    public <T> IngestionResult ingest(
+            MultipartFile file,
+            String[] expectedHeaders,
+            RowMapper<T> mapper,
+            ChunkWriter<T> writer) throws IOException {
+
+        IngestionResult result = new IngestionResult();
+        List<T> buffer = new ArrayList<>(DEFAULT_CHUNK_SIZE);
+
+        try (InputStream inputStream = file.getInputStream()) {
+            StreamingExcelReader.read(inputStream, (rowIndex, cells) -> {
+                ExcelRow row = new ExcelRow(rowIndex, cells);
+
+                if (result.header == null) {
+                    // The first physical row must be the header at row 1
+                    result.header = rowIndex == 0 ? cells : List.of();
+                    result.headerValid = rowIndex == 0
+                            && ExcelFileValidationUtil.validateHeaderRow(row, expectedHeaders);
+                    if (rowIndex == 0) return;
+                }
+                if (!result.headerValid) return;
+
+                result.totalRows++;
+                T mapped = mapper.map(row);
+                if (mapped == null) {
+                    result.invalidRows++;
+                    return;
+                }
+
+                buffer.add(mapped);
+                if (buffer.size() >= DEFAULT_CHUNK_SIZE) {
+                    writer.write(List.copyOf(buffer), result);
+                    buffer.clear();
+                }
+            });
+        }
+
+        if (result.header == null) {
+            result.header = List.of();
+        }
+        if (result.headerValid && !buffer.isEmpty()) {
+            writer.write(List.copyOf(buffer), result);
+        }
+
+        log.debug("Ingested {}: {} rows, {} invalid, {} written, skipped {}",
+                file.getOriginalFilename(), result.totalRows, result.invalidRows, result.written, result.skipped);
+        return result;
+    }
+
+    /**
+     * Inserts new entities through the persistence context, flushing every JDBC batch.
+     * Unlike saveAll this never issues a SELECT for entities with assigned ids.
+     */
+    @Transactional
+    public void persistAll(Collection<?> entities) {
+        int count = 0;
+        for (Object entity : entities) {
+            entityManager.persist(entity);
+            if (++count % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    public static class IngestionResult {
+        private List<String> header;
+        private boolean headerValid;
+        private int totalRows;
+        private int invalidRows;
+        private int written;
+        private final Map<String, Integer> skipped = new LinkedHashMap<>();
+
+        public void addWritten(int count) { written += count; }
+
+        public void skip(String reason) { skip(reason, 1); }
+
+        public void skip(String reason, int count) {
+            if (count > 0) skipped.merge(reason, count, Integer::sum);
+        }
+
+        /** Header cells as read from row 1, empty when the sheet has no header row */
+        public List<String> getHeader() { return header; }
+        public boolean isHeaderValid() { return headerValid; }
+        public int getTotalRows() { return totalRows; }
+        public int getInvalidRows() { return invalidRows; }
+        public int getWritten() { return written; }
+        public int getSkipped(String reason) { return skipped.getOrDefault(reason, 0); }
+    }
+}
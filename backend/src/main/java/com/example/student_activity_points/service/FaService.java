@@ -1,9 +1,11 @@
 package com.example.student_activity_points.service;
 
 import com.example.student_activity_points.domain.Fa;
+import com.example.student_activity_points.domain.FaPointsSummary;
 import com.example.student_activity_points.domain.Student;
 import com.example.student_activity_points.dto.StudentWithFADTO;
 import com.example.student_activity_points.repository.FARepository;
+import com.example.student_activity_points.repository.FaPointsSummaryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -17,6 +19,9 @@ public class FaService {
     @Autowired
     private FARepository faRepository;
 
+    @Autowired
+    private FaPointsSummaryRepository faPointsSummaryRepository;
+
     public Optional<Fa> getFaById(Long faid) {
         return faRepository.findById(faid);
     }
@@ -26,6 +31,12 @@ public class FaService {
         faRepository.findAll().forEach(faList::add); // Convert Iterable to List
         return faList;
     }
+
+    // Totals over the FA's students, maintained incrementally by StudentPointsService
+    public FaPointsSummary getPointsSummary(Long faid) {
+        return faPointsSummaryRepository.findById(faid)
+                .orElseGet(() -> new FaPointsSummary(faid, 0, 0, 0));
+    }
    
 
 
@@ -2,6 +2,9 @@ package com.example.student_activity_points.service;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -9,7 +12,7 @@ import org.springframework.stereotype.Service;
 import java.util.concurrent.TimeUnit;
 
 @Service
-public class FailedAttemptService {
+public class FailedAttemptService implements MeterBinder {
     
     private static final Logger log = LoggerFactory.getLogger(FailedAttemptService.class);
     
@@ -17,7 +20,13 @@ public class FailedAttemptService {
     private final Cache<String, Integer> attemptCache = Caffeine.newBuilder()
             .expireAfterWrite(30, TimeUnit.MINUTES) // Reset after 30 minutes
             .maximumSize(10_000)
+            .recordStats()
             .build();
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, attemptCache, "failedAttempts");
+    }
     
     /**
      * Check if CAPTCHA is required (after 3 failed attempts)
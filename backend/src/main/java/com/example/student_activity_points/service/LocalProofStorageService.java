@@ -0,0 +1,202 @@
+package com.example.student_activity_points.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Proof storage on the local filesystem.
+ *
+ * Files live under proof.storage.root as ab/cd/abcd...; writes go to a temp file
+ * first and are moved into place atomically once the hash is known. A staged upload
+ * stays in the temp file until it is committed.
+ */
+@Service
+public class LocalProofStorageService implements ProofStorageService {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalProofStorageService.class);
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private static final int BUFFER_SIZE = 8192;
+
+    @Value("${proof.storage.root:./data/proofs}")
+    private String rootPath;
+
+    private Path root;
+    private Path tmpDir;
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Paths.get(rootPath).toAbsolutePath().normalize();
+        tmpDir = root.resolve("tmp");
+        Files.createDirectories(tmpDir);
+        log.info("Proof storage root: {}", root);
+    }
+
+    @Override
+    public String store(InputStream content) throws IOException {
+        try (StagedProof staged = stage(content)) {
+            return staged.commit();
+        }
+    }
+
+    @Override
+    public StagedProof stage(InputStream content) throws IOException {
+        MessageDigest digest = newDigest();
+        Path tmp = Files.createTempFile(tmpDir, "upload-", ".part");
+
+        try {
+            // One buffer; the head is copied off the first reads for type sniffing
+            byte[] buffer = new byte[BUFFER_SIZE];
+            byte[] head = new byte[StagedProof.HEAD_LENGTH];
+            int headLength = 0;
+            long size = 0;
+
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(tmp), digest)) {
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    if (headLength < head.length) {
+                        int copied = Math.min(read, head.length - headLength);
+                        System.arraycopy(buffer, 0, head, headLength, copied);
+                        headLength += copied;
+                    }
+                    out.write(buffer, 0, read);
+                    size += read;
+                }
+            }
+
+            String key = HexFormat.of().formatHex(digest.digest());
+            return new LocalStagedProof(tmp, key, size, Arrays.copyOf(head, headLength));
+
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(existing(key));
+    }
+
+    @Override
+    public Resource load(String key) throws IOException {
+        return new FileSystemResource(existing(key));
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        return Files.size(existing(key));
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return isValidKey(key) && Files.isRegularFile(resolve(key));
+    }
+
+    /**
+     * Path of the stored file for a key, whether or not it exists yet
+     */
+    public Path resolve(String key) {
+        if (!isValidKey(key)) {
+            throw new IllegalArgumentException("Invalid proof key");
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    private Path existing(String key) throws IOException {
+        Path path = resolve(key);
+        if (!Files.isRegularFile(path)) {
+            throw new NoSuchFileException("Proof not found: " + key);
+        }
+        return path;
+    }
+
+    private static boolean isValidKey(String key) {
+        return key != null && KEY_PATTERN.matcher(key).matches();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private final class LocalStagedProof implements StagedProof {
+
+        private final Path tmp;
+        private final String key;
+        private final long size;
+        private final byte[] head;
+
+        LocalStagedProof(Path tmp, String key, long size, byte[] head) {
+            this.tmp = tmp;
+            this.key = key;
+            this.size = size;
+            this.head = head;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(tmp);
+        }
+
+        @Override
+        public String getKey() { return key; }
+
+        @Override
+        public long getSize() { return size; }
+
+        @Override
+        public byte[] getHead() { return head.clone(); }
+
+        @Override
+        public String commit() throws IOException {
+            Path target = resolve(key);
+
+            if (Files.exists(target)) {
+                log.debug("Proof {} already stored", key);
+                return key;
+            }
+
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Stored concurrently by another upload with the same content
+                log.debug("Proof {} stored concurrently", key);
+            }
+            return key;
+        }
+
+        @Override
+        public void close() throws IOException {
+            // Gone already once committed
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
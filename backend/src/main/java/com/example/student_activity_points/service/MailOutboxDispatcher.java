@@ -0,0 +1,286 @@
+package com.example.student_activity_points.service;
+
+import com.example.student_activity_points.domain.MailOutbox;
+import com.example.student_activity_points.repository.MailOutboxRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends the mail queued by EmailService.
+ *
+ * Each poll leases a batch of due messages, splits it into groups of
+ * messages-per-connection and sends each group over one SMTP connection
+ * (JavaMailSender.send(SimpleMailMessage...) reuses the transport for the whole
+ * group). Groups run on virtual threads, at most `workers` at a time. A failed message
+ * is retried with exponential backoff and marked FAILED after max-attempts; one that
+ * cannot be converted (e.g. a malformed recipient) is marked FAILED right away.
+ *
+ * Delivery is at-least-once: if the application stops mid-send, the leased messages
+ * become due again when the lease runs out.
+ */
+@Component
+public class MailOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(MailOutboxDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${mail.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${mail.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${mail.outbox.messages-per-connection:25}")
+    private int messagesPerConnection;
+
+    @Value("${mail.outbox.workers:4}")
+    private int workers;
+
+    @Value("${mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${mail.outbox.initial-backoff:30000}")
+    private long initialBackoffMs;
+
+    @Value("${mail.outbox.max-backoff:3600000}")
+    private long maxBackoffMs;
+
+    @Value("${mail.outbox.lease:300000}")
+    private long leaseMs;
+
+    @Value("${mail.outbox.retention-days:7}")
+    private long retentionDays;
+
+    private ExecutorService executor;
+
+    private Semaphore connections;
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("mail-sender-", 1).factory());
+        connections = new Semaphore(workers);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Let groups in flight finish so their outcome is recorded
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Scheduled(initialDelay = 5000, fixedDelayString = "${mail.outbox.poll-interval:5000}")
+    public void dispatch() {
+        if (!enabled) return;
+
+        try {
+            // A full batch means more may be waiting; keep going instead of waiting for the next poll
+            while (dispatchBatch() == batchSize) {
+                log.debug("Mail outbox backlog, dispatching the next batch");
+            }
+        } catch (Exception e) {
+            log.error("Mail outbox dispatch failed", e);
+        }
+    }
+
+    // Sent messages are kept for a while for troubleshooting; FAILED ones stay until removed by hand
+    @Scheduled(cron = "${mail.outbox.cleanup-cron:0 30 3 * * *}")
+    public void purgeSent() {
+        if (!enabled) return;
+
+        int deleted = mailOutboxRepository.deleteByStatusCreatedBefore(
+                MailOutbox.Status.SENT, LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("Purged {} sent messages from the mail outbox", deleted);
+        }
+    }
+
+    /* ===================== INTERNAL ===================== */
+
+    /** Returns the number of due messages found, whether or not this run got to claim them */
+    private int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> due = mailOutboxRepository.findDueIds(MailOutbox.Status.PENDING, now, Limit.of(batchSize));
+        if (due.isEmpty()) return 0;
+
+        String token = UUID.randomUUID().toString();
+        if (mailOutboxRepository.claim(due, MailOutbox.Status.PENDING, now, token, now.plusNanos(leaseMs * 1_000_000)) == 0) {
+            return due.size();
+        }
+        List<MailOutbox> claimed = mailOutboxRepository.findByClaimToken(token);
+
+        List<CompletableFuture<Void>> groups = new ArrayList<>();
+        for (int from = 0; from < claimed.size(); from += messagesPerConnection) {
+            List<MailOutbox> group = claimed.subList(from, Math.min(from + messagesPerConnection, claimed.size()));
+            groups.add(CompletableFuture.runAsync(() -> sendGroup(group), executor));
+        }
+        CompletableFuture.allOf(groups.toArray(CompletableFuture[]::new)).join();
+
+        // Outcomes were set on the entities by the groups; join() makes them visible here
+        mailOutboxRepository.saveAll(claimed);
+        return due.size();
+    }
+
+    private void sendGroup(List<MailOutbox> group) {
+        // An address JavaMail cannot parse would fail the whole group before anything is
+        // sent, and would fail the same way on every retry
+        List<MailOutbox> sendable = new ArrayList<>(group.size());
+        for (MailOutbox mail : group) {
+            try {
+                new InternetAddress(mail.getRecipient(), true);
+                sendable.add(mail);
+            } catch (AddressException e) {
+                markRejected(mail, e);
+            }
+        }
+        if (sendable.isEmpty()) return;
+
+        connections.acquireUninterruptibly();
+        try {
+            SimpleMailMessage[] messages = sendable.stream().map(this::toMessage).toArray(SimpleMailMessage[]::new);
+            Map<Object, Exception> failures = Collections.emptyMap();
+
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String outcome = "error";
+            try {
+                mailSender.send(messages);
+                outcome = "success";
+            } catch (MailParseException e) {
+                // Some other part of a message did not convert; find it by sending one at a time
+                log.warn("Mail group of {} did not convert, sending its messages one by one: {}",
+                        messages.length, e.getMessage());
+                failures = sendOneByOne(messages);
+                outcome = failures.isEmpty() ? "success" : failures.size() < messages.length ? "partial" : "error";
+            } catch (MailSendException e) {
+                // Keyed by the SimpleMailMessage instances passed in; anything else means all failed
+                failures = new IdentityHashMap<>(e.getFailedMessages());
+                if (Arrays.stream(messages).noneMatch(failures::containsKey)) {
+                    failures = allFailed(messages, e);
+                }
+                outcome = failures.size() < messages.length ? "partial" : "error";
+            } catch (MailException e) {
+                failures = allFailed(messages, e);
+            } finally {
+                sample.stop(meterRegistry.timer("external.mail.send", "outcome", outcome));
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < messages.length; i++) {
+                Exception failure = failures.get(messages[i]);
+                if (failure == null) {
+                    markSent(sendable.get(i), now);
+                } else if (failure instanceof MailParseException) {
+                    markRejected(sendable.get(i), failure);
+                } else {
+                    markFailed(sendable.get(i), failure, now);
+                }
+            }
+        } finally {
+            connections.release();
+        }
+    }
+
+    private Map<Object, Exception> sendOneByOne(SimpleMailMessage[] messages) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        for (SimpleMailMessage message : messages) {
+            try {
+                mailSender.send(message);
+            } catch (MailException e) {
+                failures.put(message, e);
+            }
+        }
+        return failures;
+    }
+
+    private SimpleMailMessage toMessage(MailOutbox mail) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(mail.getRecipient());
+        message.setSubject(mail.getSubject());
+        message.setText(mail.getBody());
+        return message;
+    }
+
+    private void markSent(MailOutbox mail, LocalDateTime now) {
+        mail.setAttempts(mail.getAttempts() + 1);
+        mail.setStatus(MailOutbox.Status.SENT);
+        mail.setSentAt(now);
+        mail.setClaimToken(null);
+    }
+
+    // A message that can never be sent as it is: FAILED at once instead of retried
+    private void markRejected(MailOutbox mail, Exception failure) {
+        mail.setAttempts(mail.getAttempts() + 1);
+        mail.setStatus(MailOutbox.Status.FAILED);
+        mail.setClaimToken(null);
+        mail.setLastError(truncate(String.valueOf(failure.getMessage())));
+        log.error("Mail {} to {} rejected, not retrying: {}", mail.getId(), mail.getRecipient(), failure.getMessage());
+    }
+
+    private void markFailed(MailOutbox mail, Exception failure, LocalDateTime now) {
+        int attempts = mail.getAttempts() + 1;
+        mail.setAttempts(attempts);
+        mail.setClaimToken(null);
+        mail.setLastError(truncate(String.valueOf(failure.getMessage())));
+
+        if (attempts >= maxAttempts) {
+            mail.setStatus(MailOutbox.Status.FAILED);
+            log.error("Giving up on mail {} to {} after {} attempts: {}",
+                    mail.getId(), mail.getRecipient(), attempts, failure.getMessage());
+            return;
+        }
+
+        // initial, 2x, 4x, ... capped at max-backoff
+        long backoffMs = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempts - 1, 20));
+        mail.setNextAttemptAt(now.plusNanos(backoffMs * 1_000_000));
+        log.warn("Mail {} to {} failed (attempt {}), retrying in {} s: {}",
+                mail.getId(), mail.getRecipient(), attempts, backoffMs / 1000, failure.getMessage());
+    }
+
+    private static Map<Object, Exception> allFailed(SimpleMailMessage[] messages, Exception e) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        for (SimpleMailMessage message : messages) {
+            failures.put(message, e);
+        }
+        return failures;
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
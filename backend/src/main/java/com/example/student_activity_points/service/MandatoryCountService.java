@@ -0,0 +1,126 @@
+package com.example.student_activity_points.service;
+
+import com.example.student_activity_points.domain.Activity;
+import com.example.student_activity_points.domain.StudentActivity;
+import com.example.student_activity_points.repository.ActivityRepository;
+import com.example.student_activity_points.repository.StudentActivityRepository;
+import com.example.student_activity_points.repository.StudentRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Maintains Student.mandatoryCount, the number of mandatory activities a student
+ * has on record.
+ *
+ * Every write that can change the count (enrolling students, deleting an activity,
+ * flipping an activity's mandatory flag) goes through here so the counter moves in
+ * the same transaction as the change. A reconciliation job rebuilds all counts from
+ * StudentActivity at startup and on a schedule to repair any drift.
+ */
+@Service
+public class MandatoryCountService {
+
+    private static final Logger log = LoggerFactory.getLogger(MandatoryCountService.class);
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentActivityRepository studentActivityRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Value("${student.mandatory-count.reconcile-on-startup:true}")
+    private boolean reconcileOnStartup;
+
+    /**
+     * Counts new enrollments of the given students in the activity.
+     * Call inside the transaction that inserts the StudentActivity rows.
+     */
+    @Transactional
+    public void recordEnrollments(Activity activity, Collection<String> sids) {
+        if (isMandatory(activity) && !sids.isEmpty()) {
+            studentRepository.adjustMandatoryCount(sids, 1);
+        }
+    }
+
+    /**
+     * Saves a single StudentActivity and counts it if the activity is mandatory
+     */
+    @Transactional
+    public StudentActivity enroll(StudentActivity studentActivity, Activity activity) {
+        StudentActivity saved = studentActivityRepository.save(studentActivity);
+        recordEnrollments(activity, List.of(saved.getSid()));
+        return saved;
+    }
+
+    /**
+     * Saves an updated activity, moving the counts of its enrolled students
+     * when the mandatory flag changed
+     */
+    @Transactional
+    public Activity saveActivity(Activity activity, boolean wasMandatory) {
+        Activity saved = activityRepository.save(activity);
+        boolean mandatory = isMandatory(saved);
+        if (mandatory != wasMandatory) {
+            int updated = studentRepository.adjustMandatoryCountForActivity(
+                    saved.getActID().intValue(), mandatory ? 1 : -1);
+            log.info("Activity {} mandatory flag changed, adjusted {} students", saved.getActID(), updated);
+        }
+        return saved;
+    }
+
+    /**
+     * Deletes activities (cascading to their StudentActivity rows) and uncounts
+     * the enrollments of the mandatory ones
+     */
+    @Transactional
+    public void deleteActivities(Collection<Activity> activities) {
+        for (Activity activity : activities) {
+            if (isMandatory(activity)) {
+                studentRepository.adjustMandatoryCountForActivity(activity.getActID().intValue(), -1);
+            }
+        }
+        activityRepository.deleteAll(activities);
+    }
+
+    /**
+     * Rebuilds every student's mandatory count from StudentActivity
+     */
+    @Transactional
+    public int reconcile() {
+        int updated = studentRepository.recalculateMandatoryCounts();
+        log.info("Reconciled mandatory counts for {} students", updated);
+        return updated;
+    }
+
+    @Scheduled(cron = "${student.mandatory-count.reconcile-cron:0 30 2 * * *}")
+    @Transactional
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reconcileAtStartup() {
+        if (reconcileOnStartup) {
+            reconcile();
+        }
+    }
+
+    public static boolean isMandatory(Activity activity) {
+        return activity.getMandatory() != null && activity.getMandatory() == 1;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.student_activity_points.service;
+
+import com.example.student_activity_points.domain.LegacyRequestProof;
+import com.example.student_activity_points.domain.LegacyStudentActivityProof;
+import com.example.student_activity_points.domain.StudentActivityId;
+import com.example.student_activity_points.repository.LegacyRequestProofRepository;
+import com.example.student_activity_points.repository.LegacyStudentActivityProofRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Moves proofs still held in the legacy LONGBLOB columns of Requests and
+ * StudentActivity into ProofStorageService, sets proof_key and clears the blob.
+ *
+ * Runs once at startup (proof.migration.enabled) and is a no-op when nothing is
+ * left to migrate. Each row is migrated in its own transaction so a failure only
+ * leaves that row behind for the next run.
+ */
+@Component
+public class ProofMigrationJob implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ProofMigrationJob.class);
+
+    private static final int PAGE_SIZE = 100;
+
+    @Autowired
+    private LegacyRequestProofRepository legacyRequestProofRepository;
+
+    @Autowired
+    private LegacyStudentActivityProofRepository legacyStudentActivityProofRepository;
+
+    @Autowired
+    private ProofStorageService proofStorageService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${proof.migration.enabled:true}")
+    private boolean migrationEnabled;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!migrationEnabled) {
+            log.debug("Proof migration is disabled");
+            return;
+        }
+
+        int requests = migrate("Requests",
+                page -> legacyRequestProofRepository.findIdsWithBlob(page),
+                this::migrateRequestProof);
+
+        int studentActivities = migrate("StudentActivity",
+                page -> legacyStudentActivityProofRepository.findIdsWithBlob(page),
+                this::migrateStudentActivityProof);
+
+        if (requests + studentActivities > 0) {
+            log.info("Proof migration finished: {} requests, {} student activities moved to proof storage",
+                    requests, studentActivities);
+        }
+    }
+
+    private <ID> int migrate(String table, Function<PageRequest, List<ID>> nextPage, Predicate<ID> migrateOne) {
+        int migrated = 0;
+
+        while (true) {
+            // Migrated rows drop out of the query, so always read the first page
+            List<ID> ids = nextPage.apply(PageRequest.of(0, PAGE_SIZE));
+            if (ids.isEmpty()) break;
+
+            int progress = 0;
+            for (ID id : ids) {
+                try {
+                    if (Boolean.TRUE.equals(transactionTemplate.execute(status -> migrateOne.test(id)))) {
+                        progress++;
+                    }
+                } catch (RuntimeException ex) {
+                    log.error("Failed to migrate {} proof {}", table, id, ex);
+                }
+            }
+
+            migrated += progress;
+            if (progress < ids.size()) {
+                // Failed rows would come back on every page; leave them for the next run
+                log.warn("Stopping {} proof migration with {} rows left in this batch",
+                        table, ids.size() - progress);
+                break;
+            }
+            log.info("Migrated {} {} proofs so far", migrated, table);
+        }
+        return migrated;
+    }
+
+    private boolean migrateRequestProof(Long rid) {
+        LegacyRequestProof legacy = legacyRequestProofRepository.findById(rid).orElse(null);
+        if (legacy == null || legacy.getProof() == null) return false;
+
+        legacy.setProofKey(storeBlob(legacy.getProof()));
+        legacy.setProof(null);
+        return true;
+    }
+
+    private boolean migrateStudentActivityProof(StudentActivityId id) {
+        LegacyStudentActivityProof legacy = legacyStudentActivityProofRepository.findById(id).orElse(null);
+        if (legacy == null || legacy.getProof() == null) return false;
+
+        legacy.setProofKey(storeBlob(legacy.getProof()));
+        legacy.setProof(null);
+        return true;
+    }
+
+    private String storeBlob(byte[] blob) {
+        try {
+            return proofStorageService.store(blob);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
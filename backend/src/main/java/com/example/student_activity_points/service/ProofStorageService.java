@@ -0,0 +1,73 @@
+package com.example.student_activity_points.service;
+
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.core.io.Resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Storage for uploaded proof documents.
+ *
+ * Proofs are content addressed: the key returned by {@link #store} is the lowercase
+ * hex SHA-256 of the content, so identical uploads share one stored copy and the
+ * database only keeps the key.
+ */
+public interface ProofStorageService {
+
+    /**
+     * Stores the content and returns its key. Storing content that already exists is a no-op.
+     */
+    String store(InputStream content) throws IOException;
+
+    default String store(byte[] content) throws IOException {
+        return store(new ByteArrayInputStream(content));
+    }
+
+    /**
+     * Writes the content in one pass without publishing it, so it can be checked first.
+     * {@link StagedProof#commit} makes it available under its key; closing an uncommitted
+     * stage discards it.
+     */
+    StagedProof stage(InputStream content) throws IOException;
+
+    /**
+     * Opens the stored content for reading
+     */
+    InputStream open(String key) throws IOException;
+
+    /**
+     * Stored content as a Resource with a known length, so callers can serve
+     * byte ranges without buffering the file
+     */
+    Resource load(String key) throws IOException;
+
+    /**
+     * Size of the stored content in bytes
+     */
+    long size(String key) throws IOException;
+
+    boolean exists(String key);
+
+    /** Content written by {@link #stage}; re-readable until committed or closed */
+    interface StagedProof extends InputStreamSource, AutoCloseable {
+
+        /** Number of leading bytes kept by {@link #getHead} */
+        int HEAD_LENGTH = 16;
+
+        /** The key the content will be stored under (its SHA-256) */
+        String getKey();
+
+        long getSize();
+
+        /** The first bytes of the content (fewer if it is shorter), for type sniffing */
+        byte[] getHead();
+
+        /** Publishes the content under its key and returns the key */
+        String commit() throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.student_activity_points.service;
+
+import com.example.student_activity_points.domain.Activity;
+import com.example.student_activity_points.domain.PointsLedger;
+import com.example.student_activity_points.domain.Requests;
+import com.example.student_activity_points.domain.StudentActivity;
+import com.example.student_activity_points.domain.StudentActivity.Validated;
+import com.example.student_activity_points.repository.ActivityRepository;
+import com.example.student_activity_points.repository.RequestsRepository;
+import com.example.student_activity_points.repository.StudentActivityRepository;
+import com.example.student_activity_points.repository.StudentRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * Approves a student's request: links or creates the activity, enrolls the student
+ * and credits the points.
+ *
+ * All of it runs in one transaction, so a failure at any step leaves the request
+ * Pending with nothing enrolled or credited. The request is claimed first with a
+ * conditional Pending -> Approved update; of two concurrent approvals of the same
+ * request only one sees the Pending row, and the other changes nothing.
+ */
+@Service
+public class RequestApprovalService {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestApprovalService.class);
+
+    @Autowired
+    private RequestsRepository requestsRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentActivityRepository studentActivityRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private ActivityCatalogService activityCatalogService;
+
+    @Autowired
+    private MandatoryCountService mandatoryCountService;
+
+    @Autowired
+    private StudentPointsService studentPointsService;
+
+    @Transactional
+    public ApprovalResult approve(Long rid, int points) {
+        Optional<Requests> requestOpt = requestsRepository.findById(rid);
+        if (requestOpt.isEmpty()) {
+            return ApprovalResult.of(Outcome.REQUEST_NOT_FOUND);
+        }
+
+        Requests req = requestOpt.get();
+        if (!studentRepository.existsById(req.getSid())) {
+            return ApprovalResult.of(Outcome.STUDENT_NOT_FOUND);
+        }
+
+        Optional<Activity> activityOpt = activityCatalogService.findByName(req.getActivityName());
+        if (activityOpt.isPresent() && studentActivityRepository
+                .findBySidAndActID(req.getSid(), activityOpt.get().getActID().intValue()).isPresent()) {
+            return ApprovalResult.of(Outcome.ALREADY_ENROLLED);
+        }
+
+        // Claims the request; everything below is rolled back with it on failure
+        if (requestsRepository.decide(rid, Requests.Status.Pending, Requests.Status.Approved, new Date()) == 0) {
+            return ApprovalResult.of(Outcome.ALREADY_DECIDED);
+        }
+
+        Activity activityToLink;
+        if (activityOpt.isPresent()) {
+            activityToLink = activityOpt.get();
+        } else {
+            activityToLink = new Activity();
+            activityToLink.setName(req.getActivityName());
+            activityToLink.setDescription(req.getDescription());
+            activityToLink.setDate(req.getActivityDate());
+            activityToLink.setEnd_date(req.getActivityDate());
+            activityToLink.setMandatory(0);
+            activityToLink.setPoints(points);
+            activityToLink.setType(req.getType().toString());
+
+            activityToLink = activityRepository.save(activityToLink);
+            log.info("New activity created: {}", activityToLink.getName());
+        }
+
+        StudentActivity studentActivity = new StudentActivity();
+        studentActivity.setActID(activityToLink.getActID().intValue());
+        studentActivity.setSid(req.getSid());
+        studentActivity.setDate(new Date());
+        studentActivity.setProofKey(req.getProofKey());
+        studentActivity.setValidated(Validated.Yes);
+        studentActivity.setTitle(req.getActivityName());
+        studentActivity.setPoints(points);
+        studentActivity.setActivityType(req.getType().toString());
+
+        mandatoryCountService.enroll(studentActivity, activityToLink);
+
+        // Atomic increment: concurrent approvals for the same student cannot lose points
+        studentPointsService.credit(PointsLedger.Source.APPROVAL, String.valueOf(rid),
+                req.getType().toString(), req.getSid(), points);
+
+        log.info("Request approved: rid={}, sid={}, points={}", rid, req.getSid(), points);
+        return ApprovalResult.of(Outcome.APPROVED);
+    }
+
+    public enum Outcome { APPROVED, REQUEST_NOT_FOUND, STUDENT_NOT_FOUND, ALREADY_ENROLLED, ALREADY_DECIDED }
+
+    public static class ApprovalResult {
+        private final Outcome outcome;
+
+        private ApprovalResult(Outcome outcome) {
+            this.outcome = outcome;
+        }
+
+        static ApprovalResult of(Outcome outcome) {
+            return new ApprovalResult(outcome);
+        }
+
+        public Outcome getOutcome() { return outcome; }
+        public boolean isApproved() { return outcome == Outcome.APPROVED; }
+    }
+}
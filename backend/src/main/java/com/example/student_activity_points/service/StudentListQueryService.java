@@ -0,0 +1,197 @@
+package com.example.student_activity_points.service;
+
+import com.example.student_activity_points.domain.Student;
+import com.example.student_activity_points.dto.StudentListQuery;
+import com.example.student_activity_points.dto.StudentWithMandatoryDTO;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Composable FA student list query.
+ *
+ * Builds one Criteria query per request over the Student table alone: name search,
+ * point bounds and the maintained mandatory count all go into the WHERE clause,
+ * sorting happens in the database and pages are cut with a keyset (sort value, sid)
+ * cursor instead of OFFSET, so only one page of students is ever loaded.
+ */
+@Service
+public class StudentListQueryService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private enum SortKey {
+        NAME("name"),
+        DEPT_POINTS("deptPoints"),
+        INSTITUTE_POINTS("institutePoints"),
+        ACTIVITY_POINTS("activityPoints"),
+        MANDATORY_COUNT("mandatoryCount");
+
+        private final String param;
+
+        SortKey(String param) { this.param = param; }
+
+        static SortKey fromParam(String param) {
+            for (SortKey key : values()) {
+                if (key.param.equals(param)) return key;
+            }
+            throw new IllegalArgumentException("Unknown sort key: " + param);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public StudentListPage query(int faid, StudentListQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<StudentWithMandatoryDTO> cq = cb.createQuery(StudentWithMandatoryDTO.class);
+        Root<Student> student = cq.from(Student.class);
+
+        Expression<Long> mandatoryCount = cb.toLong(student.<Integer>get("mandatoryCount"));
+        Expression<Integer> deptPoints = student.get("deptPoints");
+        Expression<Integer> institutePoints = student.get("institutePoints");
+        Expression<Integer> activityPoints = cb.coalesce(student.<Integer>get("activityPoints"), 0);
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(student.get("FAID"), faid));
+
+        if (query.getName() != null && !query.getName().isBlank()) {
+            String pattern = "%" + escapeLike(query.getName().trim().toLowerCase(Locale.ROOT)) + "%";
+            where.add(cb.like(cb.lower(student.get("name")), pattern, '\\'));
+        }
+        if (query.getMandatoryCount() != null) {
+            where.add(cb.equal(mandatoryCount, query.getMandatoryCount()));
+        }
+        addBounds(cb, where, deptPoints, query.getDeptPointsAbove(), query.getDeptPointsBelow());
+        addBounds(cb, where, institutePoints, query.getInstPointsAbove(), query.getInstPointsBelow());
+        addBounds(cb, where, activityPoints, query.getActivityPointsAbove(), query.getActivityPointsBelow());
+
+        SortKey sortKey = SortKey.fromParam(query.getSort());
+        boolean ascending = !"desc".equals(query.getDirection());
+        Expression<? extends Comparable<?>> sortExpression = switch (sortKey) {
+            case NAME -> student.<String>get("name");
+            case DEPT_POINTS -> deptPoints;
+            case INSTITUTE_POINTS -> institutePoints;
+            case ACTIVITY_POINTS -> activityPoints;
+            case MANDATORY_COUNT -> mandatoryCount;
+        };
+        Path<String> sid = student.get("sid");
+
+        if (query.getCursor() != null && !query.getCursor().isBlank()) {
+            where.add(afterCursor(cb, sortKey, sortExpression, sid, ascending, query.getCursor()));
+        }
+
+        cq.select(cb.construct(StudentWithMandatoryDTO.class, student, mandatoryCount))
+                .where(where.toArray(new Predicate[0]))
+                .orderBy(ascending ? cb.asc(sortExpression) : cb.desc(sortExpression),
+                         ascending ? cb.asc(sid) : cb.desc(sid));
+
+        TypedQuery<StudentWithMandatoryDTO> typedQuery = entityManager.createQuery(cq);
+        Integer limit = query.getLimit();
+        if (limit != null) {
+            // One extra row tells whether another page exists
+            typedQuery.setMaxResults(limit + 1);
+        }
+
+        List<StudentWithMandatoryDTO> rows = typedQuery.getResultList();
+        String nextCursor = null;
+        if (limit != null && rows.size() > limit) {
+            rows = new ArrayList<>(rows.subList(0, limit));
+            nextCursor = encodeCursor(sortKey, rows.get(limit - 1));
+        }
+        return new StudentListPage(rows, nextCursor);
+    }
+
+    /* ===================== INTERNAL ===================== */
+
+    private static void addBounds(CriteriaBuilder cb, List<Predicate> where,
+                                  Expression<Integer> points, Long above, Long below) {
+        if (above != null) where.add(cb.gt(points, above));
+        if (below != null) where.add(cb.lt(points, below));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate afterCursor(CriteriaBuilder cb, SortKey sortKey,
+                                         Expression<? extends Comparable<?>> sortExpression,
+                                         Path<String> sid, boolean ascending, String cursor) {
+        String[] parts = decodeCursor(cursor);
+        if (SortKey.fromParam(parts[0]) != sortKey) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+
+        Comparable value = switch (sortKey) {
+            case NAME -> parts[1];
+            case MANDATORY_COUNT -> Long.valueOf(parts[1]);
+            default -> Integer.valueOf(parts[1]);
+        };
+        Expression key = sortExpression;
+        String lastSid = parts[2];
+
+        // (key, sid) strictly after the last row in the requested direction
+        return ascending
+                ? cb.or(cb.greaterThan(key, value),
+                        cb.and(cb.equal(key, value), cb.greaterThan(sid, lastSid)))
+                : cb.or(cb.lessThan(key, value),
+                        cb.and(cb.equal(key, value), cb.lessThan(sid, lastSid)));
+    }
+
+    private static String encodeCursor(SortKey sortKey, StudentWithMandatoryDTO last) {
+        Student student = last.getStudent();
+        String value = switch (sortKey) {
+            case NAME -> student.getName();
+            case DEPT_POINTS -> String.valueOf(student.getDeptPoints());
+            case INSTITUTE_POINTS -> String.valueOf(student.getInstitutePoints());
+            case ACTIVITY_POINTS -> String.valueOf(student.getActivityPoints());
+            case MANDATORY_COUNT -> String.valueOf(last.getMandatoryCount());
+        };
+        String raw = sortKey.param + "\n" + value + "\n" + student.getSid();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        int first = raw.indexOf('\n');
+        int last = raw.lastIndexOf('\n');
+        if (first < 0 || first == last) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new String[] { raw.substring(0, first), raw.substring(first + 1, last), raw.substring(last + 1) };
+    }
+
+    static String escapeLike(String input) {
+        return input
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+    public static class StudentListPage {
+        private final List<StudentWithMandatoryDTO> students;
+        private final String nextCursor;
+
+        public StudentListPage(List<StudentWithMandatoryDTO> students, String nextCursor) {
+            this.students = List.copyOf(students);
+            this.nextCursor = nextCursor;
+        }
+
+        public List<StudentWithMandatoryDTO> getStudents() { return students; }
+
+        /** Cursor for the next page, null on the last page */
+        public String getNextCursor() { return nextCursor; }
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.student_activity_points.service;
+
+import com.example.student_activity_points.domain.PointsLedger;
+import com.example.student_activity_points.domain.Student;
+import com.example.student_activity_points.dto.LedgerCategoryTotalDTO;
+import com.example.student_activity_points.dto.StudentPointsDTO;
+import com.example.student_activity_points.repository.FaPointsSummaryRepository;
+import com.example.student_activity_points.repository.PointsLedgerRepository;
+import com.example.student_activity_points.repository.StudentRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Credits activity points to students.
+ *
+ * Every credit is a single atomic UPDATE that adds to the current column values in
+ * the database, so concurrent approvals and attendance uploads for the same student
+ * cannot overwrite each other the way a read, add in Java, save cycle could.
+ *
+ * Each change is also appended to the points ledger and folded into the owning FA's
+ * running totals, so the Student columns are an incrementally maintained rollup of
+ * the ledger and can be rebuilt from it one student at a time.
+ */
+@Service
+public class StudentPointsService {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentPointsService.class);
+
+    private static final List<String> CATEGORIES = List.of("Department", "Institute", "Other");
+
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private PointsLedgerRepository pointsLedgerRepository;
+
+    @Autowired
+    private FaPointsSummaryRepository faPointsSummaryRepository;
+
+    @Value("${points.ledger.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    /**
+     * Adds points to the category total and the overall activity points of each student.
+     * Returns the number of students updated.
+     */
+    @Transactional
+    public int credit(PointsLedger.Source source, String reference,
+                      String category, Collection<String> sids, int points) {
+        if (sids.isEmpty()) return 0;
+        int updated;
+        switch (category) {
+            case "Institute":
+                updated = studentRepository.addInstitutePoints(sids, points);
+                break;
+            case "Department":
+                updated = studentRepository.addDeptPoints(sids, points);
+                break;
+            case "Other":
+                updated = studentRepository.addOtherPoints(sids, points);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown category: " + category);
+        }
+
+        pointsLedgerRepository.appendForStudents(sids, category, points, source, reference,
+                creditKeyPrefix(source, reference), LocalDateTime.now());
+
+        Map<Integer, Integer> studentsPerFa = new HashMap<>();
+        for (Integer faid : studentRepository.findFaidsBySidIn(sids)) {
+            studentsPerFa.merge(faid, 1, Integer::sum);
+        }
+        studentsPerFa.forEach((faid, count) ->
+                addToFa(faid, category, (long) points * count));
+        return updated;
+    }
+
+    @Transactional
+    public boolean credit(PointsLedger.Source source, String reference,
+                          String category, String sid, int points) {
+        return credit(source, reference, category, List.of(sid), points) == 1;
+    }
+
+    /**
+     * Posts the current totals of newly created students as ledger entries and
+     * adds them to their FA rollups.
+     */
+    @Transactional
+    public void recordNewStudents(Collection<String> sids, PointsLedger.Source source, String reference) {
+        if (sids.isEmpty()) return;
+        for (StudentPointsDTO student : studentRepository.findPointsBySidIn(sids)) {
+            appendBalance(student, 1, source, reference);
+            addToFa(student.getFaid(), student.getDeptPoints(), student.getInstitutePoints(),
+                    student.getOtherPoints());
+        }
+    }
+
+    /**
+     * Reverses the whole balance of students about to be deleted, so the ledger nets
+     * to zero for their SIDs and the FA rollups drop their points.
+     */
+    @Transactional
+    public void reverseStudents(Collection<String> sids, String reference) {
+        if (sids.isEmpty()) return;
+        for (StudentPointsDTO student : studentRepository.findPointsBySidIn(sids)) {
+            appendBalance(student, -1, PointsLedger.Source.REVERSAL, reference);
+            addToFa(student.getFaid(), -student.getDeptPoints(), -student.getInstitutePoints(),
+                    -student.getOtherPoints());
+        }
+    }
+
+    /**
+     * Saves an admin edit of a student and records the point differences against the
+     * totals read before the edit. A concurrent credit fails the save on the version check.
+     */
+    @Transactional
+    public Student saveAdminEdit(Student student, StudentPointsDTO before, String reference) {
+        Student saved = studentRepository.save(student);
+
+        List<PointsLedger> entries = new ArrayList<>();
+        addEntry(entries, saved.getSid(), "Department", saved.getDeptPoints() - before.getDeptPoints(),
+                PointsLedger.Source.ADMIN_EDIT, reference);
+        addEntry(entries, saved.getSid(), "Institute", saved.getInstitutePoints() - before.getInstitutePoints(),
+                PointsLedger.Source.ADMIN_EDIT, reference);
+        addEntry(entries, saved.getSid(), "Other", saved.getOtherPoints() - before.getOtherPoints(),
+                PointsLedger.Source.ADMIN_EDIT, reference);
+        pointsLedgerRepository.saveAll(entries);
+
+        // A changed FA moves the whole balance between rollups
+        addToFa(before.getFaid(), -before.getDeptPoints(), -before.getInstitutePoints(), -before.getOtherPoints());
+        addToFa(saved.getFaid(), saved.getDeptPoints(), saved.getInstitutePoints(), saved.getOtherPoints());
+        return saved;
+    }
+
+    /**
+     * Recomputes one student's totals from their ledger entries and resums their FA's
+     * rollup. Returns null when the student does not exist.
+     */
+    @Transactional
+    public RebuildResult rebuildStudent(String sid) {
+        List<StudentPointsDTO> current = studentRepository.findPointsBySidIn(List.of(sid));
+        if (current.isEmpty()) return null;
+        StudentPointsDTO before = current.get(0);
+
+        Map<String, Long> totals = new HashMap<>();
+        for (LedgerCategoryTotalDTO total : pointsLedgerRepository.sumByCategory(sid)) {
+            totals.put(total.getCategory(), total.getTotal());
+        }
+        StudentPointsDTO after = new StudentPointsDTO(sid, before.getFaid(),
+                Math.toIntExact(totals.getOrDefault("Department", 0L)),
+                Math.toIntExact(totals.getOrDefault("Institute", 0L)),
+                Math.toIntExact(totals.getOrDefault("Other", 0L)));
+
+        studentRepository.setPoints(sid, after.getDeptPoints(), after.getInstitutePoints(), after.getOtherPoints());
+        // Drifted columns were never folded into the rollup, so resum the FA rather than apply a delta
+        faPointsSummaryRepository.recalculate((long) before.getFaid());
+
+        if (after.getActivityPoints() != before.getActivityPoints()) {
+            log.info("Rebuilt points for {}: {} -> {}", sid, before.getActivityPoints(), after.getActivityPoints());
+        }
+        return new RebuildResult(before, after);
+    }
+
+    /** Recomputes every FA rollup from the per-student totals */
+    @Transactional
+    public int rebuildFaSummaries() {
+        faPointsSummaryRepository.deleteAllRows();
+        return faPointsSummaryRepository.insertFromStudents();
+    }
+
+    /**
+     * Gives students with pre-ledger points an opening balance entry, then rebuilds
+     * the FA rollups so they start out consistent.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillAtStartup() {
+        if (!backfillOnStartup) return;
+
+        int opened = 0;
+        List<String> batch;
+        while (!(batch = pointsLedgerRepository.findSidsWithoutEntries(Limit.of(BACKFILL_BATCH_SIZE))).isEmpty()) {
+            for (StudentPointsDTO student : studentRepository.findPointsBySidIn(batch)) {
+                appendBalance(student, 1, PointsLedger.Source.OPENING_BALANCE, null);
+            }
+            opened += batch.size();
+        }
+        int fas = rebuildFaSummaries();
+        log.info("Points ledger ready: {} opening balances posted, {} FA summaries rebuilt", opened, fas);
+    }
+
+    public static boolean isKnownCategory(String category) {
+        return CATEGORIES.contains(category);
+    }
+
+    /* ===================== INTERNAL ===================== */
+
+    // An approval credits its request once; attendance is already guarded by the
+    // enrollment key, and edits, imports and reversals repeat legitimately
+    private static String creditKeyPrefix(PointsLedger.Source source, String reference) {
+        return source == PointsLedger.Source.APPROVAL ? source + "/" + reference + "/" : null;
+    }
+
+    private void appendBalance(StudentPointsDTO student, int sign,
+                               PointsLedger.Source source, String reference) {
+        List<PointsLedger> entries = new ArrayList<>();
+        for (String category : CATEGORIES) {
+            addEntry(entries, student.getSid(), category, sign * student.getPoints(category), source, reference);
+        }
+        pointsLedgerRepository.saveAll(entries);
+    }
+
+    private static void addEntry(List<PointsLedger> entries, String sid, String category, int points,
+                                 PointsLedger.Source source, String reference) {
+        if (points == 0) return;
+        PointsLedger entry = new PointsLedger();
+        entry.setSid(sid);
+        entry.setCategory(category);
+        entry.setPoints(points);
+        entry.setSource(source);
+        entry.setReference(reference);
+        entries.add(entry);
+    }
+
+    private void addToFa(int faid, String category, long points) {
+        switch (category) {
+            case "Department":
+                addToFa(faid, points, 0, 0);
+                break;
+            case "Institute":
+                addToFa(faid, 0, points, 0);
+                break;
+            case "Other":
+                addToFa(faid, 0, 0, points);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown category: " + category);
+        }
+    }
+
+    private void addToFa(int faid, long dept, long institute, long other) {
+        if (dept == 0 && institute == 0 && other == 0) return;
+        // Also creates the row for an FA added after the last rebuild
+        faPointsSummaryRepository.add((long) faid, dept, institute, other);
+    }
+
+    public static class RebuildResult {
+        private final StudentPointsDTO before;
+        private final StudentPointsDTO after;
+
+        public RebuildResult(StudentPointsDTO before, StudentPointsDTO after) {
+            this.before = before;
+            this.after = after;
+        }
+
+        public StudentPointsDTO getBefore() { return before; }
+        public StudentPointsDTO getAfter() { return after; }
+    }
+}
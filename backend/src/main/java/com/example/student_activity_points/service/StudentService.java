@@ -2,6 +2,7 @@ package com.example.student_activity_points.service;
 import com.example.student_activity_points.domain.Student;
 import com.example.student_activity_points.domain.StudentActivity;
 import com.example.student_activity_points.dto.StudentWithFADTO;
+import com.example.student_activity_points.dto.StudentListQuery;
 import com.example.student_activity_points.dto.StudentWithMandatoryDTO;
 import com.example.student_activity_points.domain.Announcements;
 import com.example.student_activity_points.domain.Fa;
@@ -12,9 +13,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.function.Consumer;
 
 @Service
 public class StudentService {
@@ -28,6 +28,9 @@ public class StudentService {
     @Autowired
     private AnnouncementsRepository announcementsRepository;
 
+    @Autowired
+    private StudentListQueryService studentListQueryService;
+
     private String escapeLike(String input) {
     if (input == null) return "";
     // Escape backslash first, then % and _
@@ -108,62 +111,47 @@ public class StudentService {
         return studentRepository.searchStudentsByFAIDAndMandatoryCount(FAID, mandatoryCount);
     }
     
-    // Ascending order
-   // Ascending order (by name)
+    // Ascending order (by name)
     public List<StudentWithMandatoryDTO> getStudentsByFAIDWithMandatoryCountAsc(int FAID) {
-        List<StudentWithMandatoryDTO> students = studentRepository.findStudentsWithMandatoryCount(FAID);
-        return students.stream()
-                .sorted(Comparator.comparing(s -> s.getStudent().getName(), String.CASE_INSENSITIVE_ORDER))
-                .collect(Collectors.toList());
+        return queryAll(FAID, q -> q.setDirection("asc"));
     }
 
     // Descending order (by name)
     public List<StudentWithMandatoryDTO> getStudentsByFAIDWithMandatoryCountDesc(int FAID) {
-        List<StudentWithMandatoryDTO> students = studentRepository.findStudentsWithMandatoryCount(FAID);
-        return students.stream()
-                .sorted(Comparator.comparing(
-                        (StudentWithMandatoryDTO s) -> s.getStudent().getName(),
-                        String.CASE_INSENSITIVE_ORDER
-                ).reversed())
-                .collect(Collectors.toList());
+        return queryAll(FAID, q -> q.setDirection("desc"));
     }
 
-     public List<StudentWithMandatoryDTO> filterDeptPointsAbove(int FAID, Long points) {
-        return studentRepository.findStudentsWithMandatoryCount(FAID).stream()
-                .filter(s -> s.getStudent().getDeptPoints() > points)
-                .collect(Collectors.toList());
+    public List<StudentWithMandatoryDTO> filterDeptPointsAbove(int FAID, Long points) {
+        return queryAll(FAID, q -> q.setDeptPointsAbove(points));
     }
     
     public List<StudentWithMandatoryDTO> filterDeptPointsBelow(int FAID, Long points) {
-        return studentRepository.findStudentsWithMandatoryCount(FAID).stream()
-                .filter(s -> s.getStudent().getDeptPoints() < points)
-                .collect(Collectors.toList());
+        return queryAll(FAID, q -> q.setDeptPointsBelow(points));
     }
     
     public List<StudentWithMandatoryDTO> filterInstPointsAbove(int FAID, Long points) {
-        return studentRepository.findStudentsWithMandatoryCount(FAID).stream()
-                .filter(s ->  s.getStudent().getInstitutePoints() > points)
-                .collect(Collectors.toList());
+        return queryAll(FAID, q -> q.setInstPointsAbove(points));
     }
     
     public List<StudentWithMandatoryDTO> filterInstPointsBelow(int FAID, Long points) {
-        return studentRepository.findStudentsWithMandatoryCount(FAID).stream()
-                .filter(s -> s.getStudent().getInstitutePoints() < points)
-                .collect(Collectors.toList());
+        return queryAll(FAID, q -> q.setInstPointsBelow(points));
     }
     
     // Activity Points - Above
     public List<StudentWithMandatoryDTO> filterActivityPointsAbove(int FAID, Long points) {
-        return studentRepository.findStudentsWithMandatoryCount(FAID).stream()
-                .filter(s -> s.getStudent().getActivityPoints() > points)
-                .collect(Collectors.toList());
+        return queryAll(FAID, q -> q.setActivityPointsAbove(points));
     }
 
     // Activity Points - Below
     public List<StudentWithMandatoryDTO> filterActivityPointsBelow(int FAID, Long points) {
-        return studentRepository.findStudentsWithMandatoryCount(FAID).stream()
-                .filter(s -> s.getStudent().getActivityPoints() < points)
-                .collect(Collectors.toList());
+        return queryAll(FAID, q -> q.setActivityPointsBelow(points));
+    }
+
+    // Filters and sorts in the database through the composable list query, unpaged
+    private List<StudentWithMandatoryDTO> queryAll(int FAID, Consumer<StudentListQuery> criteria) {
+        StudentListQuery query = new StudentListQuery();
+        criteria.accept(query);
+        return studentListQueryService.query(FAID, query).getStudents();
     }
 
     //dto
@@ -1,7 +1,7 @@
 package com.example.student_activity_points.service;
-import com.example.student_activity_points.domain.Requests;
-import com.example.student_activity_points.domain.StudentActivity;
 import com.example.student_activity_points.repository.RequestsRepository;
+import com.example.student_activity_points.dto.RequestSummaryDTO;
+import com.example.student_activity_points.dto.StudentActivitySummaryDTO;
 import com.example.student_activity_points.dto.TrackingDTO;
 import com.example.student_activity_points.repository.StudentActivityRepository;
 import org.springframework.stereotype.Service;
@@ -21,8 +21,8 @@ public class TrackingService {
     }
 
     public TrackingDTO getTrackingBySid(String sid) {
-        List<Requests> requests = requestsRepository.findBySid(sid);
-        List<StudentActivity> activities = studentActivityRepository.findBySid(sid);
+        List<RequestSummaryDTO> requests = requestsRepository.findSummariesBySid(sid);
+        List<StudentActivitySummaryDTO> activities = studentActivityRepository.findSummariesBySid(sid);
 
         TrackingDTO dto = new TrackingDTO();
 
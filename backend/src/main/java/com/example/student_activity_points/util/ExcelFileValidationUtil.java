@@ -1,15 +1,14 @@
 package com.example.student_activity_points.util;
 
 import org.apache.poi.poifs.filesystem.FileMagic;
-import org.apache.poi.ss.usermodel.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
@@ -77,23 +76,30 @@ public class ExcelFileValidationUtil {
             return ValidationResult.failure("Invalid file type");
         }
 
+        if (enableVirusScanning && antivirusService == null) {
+            return ValidationResult.failure("Antivirus unavailable");
+        }
+
+        // The scan runs while the content is checked here
+        CompletableFuture<Boolean> scan = enableVirusScanning ? antivirusService.scanAsync(file) : null;
+
         try {
             if (!isValidExcelFile(file.getInputStream())) {
+                if (scan != null) scan.cancel(false);
                 return ValidationResult.failure("File content is not Excel format");
             }
         } catch (IOException e) {
+            if (scan != null) scan.cancel(false);
             return ValidationResult.failure("Unable to read file content");
         }
 
-        if (enableVirusScanning) {
-            if (antivirusService == null) {
-                return ValidationResult.failure("Antivirus unavailable");
-            }
+        if (scan != null) {
             try {
-                if (!antivirusService.isFileSafe(file)) {
+                if (!scan.join()) {
                     return ValidationResult.failure("File failed security scan");
                 }
             } catch (Exception e) {
+                log.warn("Security scan failed: {}", e.getMessage());
                 return ValidationResult.failure("Security scan failed");
             }
         }
@@ -102,84 +108,83 @@ public class ExcelFileValidationUtil {
     }
 
 
-    public static boolean isValidStudentRow(Row row) {
+    public static boolean isValidStudentRow(ExcelRow row) {
         // Must have columns 0–7
         for (int i = 0; i <= 7; i++) {
-            if (row.getCell(i) == null) {
+            if (!row.hasCell(i)) {
                 return false;
             }
         }
-    
-        String sid = getCellString(row.getCell(0));
-        String email = getCellString(row.getCell(2));
-        String name = getCellString(row.getCell(1));
-    
+
+        String sid = row.getString(0);
+        String email = row.getString(2);
+        String name = row.getString(1);
+
         // SID: exactly 9 characters
-        if (sid == null || sid.length() != 9) {
+        if (sid.length() != 9) {
             return false;
         }
-    
+
         // Email format
         if (!isValidEmail(email)) {
-                    return false;
-                }
-            
-                // Name must be alphabetic (allow spaces)
-                if (name == null || !name.matches("[A-Za-z ]+")) {
-                    return false;
-                }
-            
-                // Integer validations
-                return isIntegerCell(row.getCell(3)) &&  // did
-                       isIntegerCell(row.getCell(4)) &&  // faid
-                       isIntegerCell(row.getCell(5)) &&  // deptPoints
-                       isIntegerCell(row.getCell(6)) &&  // institutePoints
-                       isIntegerCell(row.getCell(7));    // otherPoints
-            }
-        
+            return false;
+        }
+
+        // Name must be alphabetic (allow spaces)
+        if (!name.matches("[A-Za-z ]+")) {
+            return false;
+        }
+
+        // Integer validations
+        return row.isInteger(3) &&  // did
+               row.isInteger(4) &&  // faid
+               row.isInteger(5) &&  // deptPoints
+               row.isInteger(6) &&  // institutePoints
+               row.isInteger(7);    // otherPoints
+    }
+
     private static boolean isValidEmail(String email) {
         if (email == null) return false;
         return email.matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$");
     }
 
 
-    public static boolean isValidFaRow(Row row) {
+    public static boolean isValidFaRow(ExcelRow row) {
 
         // Must have columns 0–2
         for (int i = 0; i <= 2; i++) {
-            if (row.getCell(i) == null) {
+            if (!row.hasCell(i)) {
                 return false;
             }
         }
-    
-        String name = getCellString(row.getCell(0));
-        String email = getCellString(row.getCell(1));
-    
+
+        String name = row.getString(0);
+        String email = row.getString(1);
+
         // Name: alphabets and spaces only
-        if (name == null || !name.matches("[A-Za-z .\\-]+")) {
+        if (!name.matches("[A-Za-z .\\-]+")) {
             return false;
         }
-    
+
         // Email format
         if (!isValidEmail(email)) {
             return false;
         }
-    
+
         // DID must be integer
-        return isIntegerCell(row.getCell(2));
+        return row.isInteger(2);
     }
-    
+
 
     /* ===================== EXCEL STRUCTURE ===================== */
 
-    public static boolean validateHeaderRow(Row headerRow, String[] expectedHeaders) {
+    public static boolean validateHeaderRow(ExcelRow headerRow, String[] expectedHeaders) {
         if (headerRow == null) return false;
 
         for (int i = 0; i < expectedHeaders.length; i++) {
-            Cell cell = headerRow.getCell(i);
-            if (cell == null) return false;
+            if (!headerRow.hasCell(i)) return false;
 
-            String actual = cell.getStringCellValue().trim();
+            String actual = headerRow.getString(i);
             if (!expectedHeaders[i].equalsIgnoreCase(actual)) {
                 return false;
             }
@@ -187,97 +192,30 @@ public class ExcelFileValidationUtil {
         return true;
     }
 
-    /* ===================== CELL HELPERS ===================== */
-
-    public static String getCellString(Cell cell) {
-        if (cell == null) return "";
-        if (cell.getCellType() == CellType.STRING)
-            return cell.getStringCellValue().trim();
-        if (cell.getCellType() == CellType.NUMERIC)
-            return String.valueOf((int) cell.getNumericCellValue());
-        return "";
-    }
-
-    public static Integer getCellInt(Cell cell) {
-        if (cell == null) return null;
-        try {
-            if (cell.getCellType() == CellType.NUMERIC)
-                return (int) cell.getNumericCellValue();
-            if (cell.getCellType() == CellType.STRING)
-                return Integer.parseInt(cell.getStringCellValue().trim());
-        } catch (Exception ignored) {}
-        return null;
-    }
-
-    public static boolean isIntegerCell(Cell cell) {
-        if (cell == null) return false;
-        if (cell.getCellType() == CellType.NUMERIC) return true;
-        if (cell.getCellType() == CellType.STRING)
-            return cell.getStringCellValue().trim().matches("\\d+");
-        return false;
-    }
-
-    /* ===================== DATE HELPERS ===================== */
-
-    public static Date parseDateSafe(Cell cell) {
-        try {
-            if (cell == null) return null;
-
-            if (cell.getCellType() == CellType.NUMERIC &&
-                    DateUtil.isCellDateFormatted(cell)) {
-                return cell.getDateCellValue();
-            }
-
-            if (cell.getCellType() == CellType.STRING) {
-                String s = cell.getStringCellValue().trim();
-                if (!s.isEmpty()) {
-                    return new SimpleDateFormat("yyyy-MM-dd").parse(s);
-                }
-            }
-        } catch (Exception ignored) {}
-        return null;
-    }
-
-    public static LocalDate parseLocalDate(Cell cell) {
-        try {
-            if (cell == null) return null;
-
-            if (cell.getCellType() == CellType.NUMERIC &&
-                    DateUtil.isCellDateFormatted(cell)) {
-                return cell.getLocalDateTimeCellValue().toLocalDate();
-            }
-
-            if (cell.getCellType() == CellType.STRING) {
-                return LocalDate.parse(cell.getStringCellValue().trim());
-            }
-        } catch (Exception ignored) {}
-        return null;
-    }
-
     /* ===================== ACTIVITY ROW VALIDATION ===================== */
 
-    public static boolean isValidActivityRow(Row row) {
+    public static boolean isValidActivityRow(ExcelRow row) {
 
         for (int i = 0; i <= 7; i++) {
-            if (row.getCell(i) == null) return false;
+            if (!row.hasCell(i)) return false;
         }
 
-        String name = getCellString(row.getCell(0));
-        String desc = getCellString(row.getCell(1));
-        String type = getCellString(row.getCell(6));
+        String name = row.getString(0);
+        String desc = row.getString(1);
+        String type = row.getString(6);
 
         if (name.isBlank() || desc.isBlank() || type.isBlank()) return false;
 
-        Integer points = getCellInt(row.getCell(2));
-        Integer did = getCellInt(row.getCell(3));
-        Integer mandatory = getCellInt(row.getCell(7));
+        Integer points = row.getInt(2);
+        Integer did = row.getInt(3);
+        Integer mandatory = row.getInt(7);
 
         if (points == null || points <= 0) return false;
         if (did == null || did <= 0) return false;
         if (mandatory == null || (mandatory != 0 && mandatory != 1)) return false;
 
-        LocalDate start = parseLocalDate(row.getCell(4));
-        LocalDate end = parseLocalDate(row.getCell(5));
+        LocalDate start = row.getLocalDate(4);
+        LocalDate end = row.getLocalDate(5);
 
         return start != null && end != null && !end.isBefore(start);
     }
@@ -321,5 +259,14 @@ public class ExcelFileValidationUtil {
 
     public interface AntivirusService {
         boolean isFileSafe(MultipartFile file) throws IOException;
+
+        /** Starts the scan without waiting for the verdict; by default scans inline */
+        default CompletableFuture<Boolean> scanAsync(MultipartFile file) {
+            try {
+                return CompletableFuture.completedFuture(isFileSafe(file));
+            } catch (IOException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
     }
 }
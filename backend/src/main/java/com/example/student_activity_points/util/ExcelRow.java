@@ -0,0 +1,63 @@
+package com.example.student_activity_points.util;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * One data row produced by StreamingExcelReader, with typed accessors mirroring the
+ * cell helpers in ExcelFileValidationUtil.
+ */
+public final class ExcelRow {
+
+    private final int rowIndex;
+    private final List<String> cells;
+
+    public ExcelRow(int rowIndex, List<String> cells) {
+        this.rowIndex = rowIndex;
+        this.cells = Collections.unmodifiableList(new ArrayList<>(cells));
+    }
+
+    /** 1-based row number as shown in Excel */
+    public int getRowNumber() { return rowIndex + 1; }
+
+    public int getRowIndex() { return rowIndex; }
+
+    public boolean hasCell(int col) {
+        return col < cells.size() && cells.get(col) != null;
+    }
+
+    public String getString(int col) {
+        return hasCell(col) ? cells.get(col) : "";
+    }
+
+    public Integer getInt(int col) {
+        try {
+            return Integer.parseInt(getString(col));
+        } catch (NumberFormatException ignored) {
+            return null;
+        }
+    }
+
+    public boolean isInteger(int col) {
+        return hasCell(col) && getString(col).matches("\\d+") && getInt(col) != null;
+    }
+
+    public LocalDate getLocalDate(int col) {
+        try {
+            String value = getString(col);
+            return value.isEmpty() ? null : LocalDate.parse(value);
+        } catch (DateTimeParseException ignored) {
+            return null;
+        }
+    }
+
+    public Date getDate(int col) {
+        LocalDate date = getLocalDate(col);
+        return date == null ? null : Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.student_activity_points.util;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the SQL statements Hibernate prepares, and the time spent executing them,
+ * on the current thread while a scope is open.
+ *
+ * QueryCountFilter opens one scope per request. Scopes nest, so an integration test
+ * can wrap a call in its own scope and assert on it:
+ *
+ *     QueryCounter.measure(() -> mockMvc.perform(get("/api/fa/students"))).assertStatementsAtMost(3);
+ *
+ * Only statements issued through Hibernate are seen; JdbcTemplate calls are not.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<ArrayDeque<Scope>> ACTIVE = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    public static Scope open() {
+        ArrayDeque<Scope> scopes = ACTIVE.get();
+        if (scopes == null) {
+            scopes = new ArrayDeque<>();
+            ACTIVE.set(scopes);
+        }
+        Scope scope = new Scope();
+        scopes.push(scope);
+        return scope;
+    }
+
+    /** Runs the action in a new scope and returns the closed scope */
+    public static Scope measure(Callable<?> action) throws Exception {
+        try (Scope scope = open()) {
+            action.call();
+            return scope;
+        }
+    }
+
+    public static void statementPrepared() {
+        ArrayDeque<Scope> scopes = ACTIVE.get();
+        if (scopes == null) return;
+        for (Scope scope : scopes) {
+            scope.statements++;
+        }
+    }
+
+    public static void jdbcTime(long nanos) {
+        ArrayDeque<Scope> scopes = ACTIVE.get();
+        if (scopes == null) return;
+        for (Scope scope : scopes) {
+            scope.jdbcNanos += nanos;
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private long statements;
+        private long jdbcNanos;
+
+        private Scope() {
+        }
+
+        public long getStatements() { return statements; }
+        public long getJdbcNanos() { return jdbcNanos; }
+
+        public long getJdbcMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(jdbcNanos);
+        }
+
+        /** Fails with an AssertionError, for tests guarding an endpoint against new N+1 loops */
+        public Scope assertStatementsAtMost(long max) {
+            if (statements > max) {
+                throw new AssertionError("Expected at most " + max + " SQL statements but " + statements + " were run");
+            }
+            return this;
+        }
+
+        @Override
+        public void close() {
+            ArrayDeque<Scope> scopes = ACTIVE.get();
+            if (scopes == null) return;
+            scopes.remove(this);
+            if (scopes.isEmpty()) {
+                ACTIVE.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.student_activity_points.util;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.openxml4j.exceptions.InvalidOperationException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Event (SAX) based reader for the first sheet of an .xlsx file.
+ *
+ * Rows are handed to the caller one at a time as plain strings, so memory stays
+ * bounded by a single row instead of the whole XSSFWorkbook DOM. Legacy .xls files
+ * (OLE2) fall back to the HSSF user model and are reported through the same callback.
+ */
+public final class StreamingExcelReader {
+
+    private StreamingExcelReader() {}
+
+    /**
+     * Receives each physical row of the sheet.
+     * rowIndex is 0-based; cells holds trimmed values by column, null where the cell is absent.
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        void handleRow(int rowIndex, List<String> cells);
+    }
+
+    public static void read(InputStream inputStream, RowHandler handler) throws IOException {
+        InputStream in = FileMagic.prepareToCheckMagic(inputStream);
+        if (FileMagic.valueOf(in) == FileMagic.OLE2) {
+            readLegacy(in, handler);
+            return;
+        }
+
+        // OPCPackage.open(InputStream) inflates the whole zip into memory; from a file it
+        // reads entries on demand, so the upload is staged to disk first
+        Path staged = Files.createTempFile("upload-", ".xlsx");
+        try {
+            Files.copy(in, staged, StandardCopyOption.REPLACE_EXISTING);
+            readPackage(staged.toFile(), handler);
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+    }
+
+    /* ===================== INTERNAL ===================== */
+
+    private static void readPackage(File file, RowHandler handler) throws IOException {
+        OPCPackage pkg;
+        try {
+            pkg = OPCPackage.open(file, PackageAccess.READ);
+        } catch (InvalidOperationException | OpenXML4JException e) {
+            throw new IOException("File content is not a valid .xlsx package", e);
+        }
+
+        try {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                        styles, null, strings, new RowCollector(handler), new PlainValueFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Unable to parse Excel sheet", e);
+        } finally {
+            // Read-only use: never write the package back
+            pkg.revert();
+        }
+    }
+
+    private static void readLegacy(InputStream in, RowHandler handler) throws IOException {
+        PlainValueFormatter formatter = new PlainValueFormatter();
+        try (HSSFWorkbook workbook = new HSSFWorkbook(in)) {
+            if (workbook.getNumberOfSheets() == 0) {
+                return;
+            }
+            Sheet sheet = workbook.getSheetAt(0);
+            for (Row row : sheet) {
+                List<String> cells = new ArrayList<>();
+                for (int col = 0; col < Math.max(row.getLastCellNum(), 0); col++) {
+                    cells.add(legacyCellValue(row.getCell(col), formatter));
+                }
+                handler.handleRow(row.getRowNum(), Collections.unmodifiableList(cells));
+            }
+        }
+    }
+
+    private static String legacyCellValue(Cell cell, PlainValueFormatter formatter) {
+        if (cell == null) return null;
+        CellType type = cell.getCellType() == CellType.FORMULA
+                ? cell.getCachedFormulaResultType()
+                : cell.getCellType();
+        switch (type) {
+            case STRING:
+                return cell.getStringCellValue().trim();
+            case NUMERIC:
+                return formatter.formatRawCellContents(cell.getNumericCellValue(),
+                        cell.getCellStyle().getDataFormat(), cell.getCellStyle().getDataFormatString());
+            case BOOLEAN:
+                return String.valueOf(cell.getBooleanCellValue()).toUpperCase();
+            default:
+                return "";
+        }
+    }
+
+    private static final class RowCollector implements SheetContentsHandler {
+        private final RowHandler handler;
+        private final List<String> cells = new ArrayList<>();
+        private int currentCol = -1;
+
+        RowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+            currentCol = -1;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            handler.handleRow(rowNum, Collections.unmodifiableList(new ArrayList<>(cells)));
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int col = cellReference == null
+                    ? currentCol + 1
+                    : new CellReference(cellReference).getCol();
+
+            while (cells.size() < col) {
+                cells.add(null);
+            }
+            cells.add(formattedValue == null ? "" : formattedValue.trim());
+            currentCol = col;
+        }
+    }
+
+    /**
+     * Renders numeric cells the way the row validators expect them: dates as
+     * yyyy-MM-dd and plain numbers without grouping or display formatting.
+     */
+    private static final class PlainValueFormatter extends DataFormatter {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getLocalDateTime(value).toLocalDate().toString();
+            }
+            if (value == Math.rint(value) && !Double.isInfinite(value)) {
+                return Long.toString((long) value);
+            }
+            return BigDecimal.valueOf(value).toPlainString();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+-- Baseline: the schema as Hibernate generated it before migrations were introduced.
+-- Existing databases are baselined at this version and skip it (spring.flyway.baseline-on-migrate).
+
+create table activity (
+    did integer,
+    isuploaded BOOLEAN DEFAULT FALSE,
+    mandatory integer,
+    no_of_people integer,
+    points integer,
+    actid bigint not null auto_increment,
+    date datetime(6),
+    end_date datetime(6),
+    description varchar(255),
+    name varchar(255),
+    outside_inside varchar(255),
+    type varchar(255),
+    primary key (actid)
+) engine=InnoDB;
+
+create table admin (
+    id integer not null auto_increment,
+    reset_token_expiry datetime(6),
+    email varchar(255) not null,
+    name varchar(255) not null,
+    password varchar(255) not null,
+    reset_token varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table announcements (
+    faid integer not null,
+    aid bigint not null auto_increment,
+    date datetime(6) not null,
+    body TEXT not null,
+    time varchar(255) not null,
+    title varchar(255) not null,
+    primary key (aid)
+) engine=InnoDB;
+
+create table departments (
+    did bigint not null auto_increment,
+    name varchar(255),
+    primary key (did)
+) engine=InnoDB;
+
+create table fa (
+    did bigint,
+    faid bigint not null auto_increment,
+    emailid varchar(255) not null,
+    name varchar(255) not null,
+    primary key (faid)
+) engine=InnoDB;
+
+create table refresh_tokens (
+    created_at datetime(6) not null,
+    expiry_date datetime(6) not null,
+    id bigint not null auto_increment,
+    ip_address varchar(100),
+    token varchar(500) not null,
+    user_agent varchar(500),
+    user_email varchar(255) not null,
+    user_role varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table requests (
+    points integer,
+    activity_date datetime(6),
+    date datetime(6) not null,
+    decison_date datetime(6),
+    rid bigint not null auto_increment,
+    activity_name varchar(255),
+    comments varchar(255),
+    description TEXT,
+    sid varchar(255) not null,
+    proof LONGBLOB,
+    status enum ('Approved','Pending','Rejected') not null,
+    type enum ('Department','Institute','Other') not null,
+    primary key (rid)
+) engine=InnoDB;
+
+create table student (
+    activity_points INT DEFAULT 0,
+    dept_points INT DEFAULT 0,
+    did integer not null,
+    faid integer not null,
+    institute_points INT DEFAULT 0,
+    other_points INT DEFAULT 0,
+    emailid varchar(255) not null,
+    name varchar(255) not null,
+    sid varchar(255) not null,
+    primary key (sid)
+) engine=InnoDB;
+
+create table student_activity (
+    actid integer not null,
+    points INT DEFAULT 0,
+    date datetime(6) not null,
+    activity_type varchar(255) not null,
+    sid varchar(255) not null,
+    title varchar(255) not null,
+    proof LONGBLOB,
+    validated ENUM('No','Yes','Pending') DEFAULT 'Pending' not null,
+    primary key (actid, sid)
+) engine=InnoDB;
+
+create table validation (
+    actid bigint not null,
+    upload_date datetime(6) not null,
+    vid bigint not null auto_increment,
+    sid varchar(255) not null,
+    validated enum ('NA','No','Yes') not null,
+    primary key (vid)
+) engine=InnoDB;
+
+alter table admin 
+   add constraint uk_admin_email unique (email);
+
+alter table fa 
+   add constraint uk_fa_emailid unique (emailid);
+
+alter table refresh_tokens 
+   add constraint uk_refresh_tokens_token unique (token);
+
+alter table student 
+   add constraint uk_student_emailid unique (emailid);
+
+alter table fa 
+   add constraint fk_fa_did 
+   foreign key (did) 
+   references departments (did);
+
+alter table student_activity 
+   add constraint fk_student_activity_actid 
+   foreign key (actid) 
+   references activity (actid);
+
+alter table student_activity 
+   add constraint fk_student_activity_sid 
+   foreign key (sid) 
+   references student (sid);
+
+alter table validation 
+   add constraint fk_validation_actid 
+   foreign key (actid) 
+   references activity (actid) 
+   on delete cascade;
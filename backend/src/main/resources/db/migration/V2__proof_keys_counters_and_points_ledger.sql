@@ -0,0 +1,41 @@
+-- Proof documents move to the content-addressed store; the LONGBLOB columns stay
+-- until ProofMigrationJob has copied every legacy proof out of them.
+alter table requests
+   add column proof_key varchar(64);
+
+alter table student_activity
+   add column proof_key varchar(64);
+
+-- Materialized count of completed mandatory activities, reconciled at startup
+alter table student
+   add column mandatory_count INT NOT NULL DEFAULT 0;
+
+-- Optimistic lock for read-modify-write saves of Student
+alter table student
+   add column version BIGINT NOT NULL DEFAULT 0;
+
+create table points_ledger (
+    points integer not null,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    category varchar(20) not null,
+    credit_key varchar(300),
+    reference varchar(255),
+    sid varchar(255) not null,
+    source enum ('ADMIN_EDIT','APPROVAL','ATTENDANCE','IMPORT','OPENING_BALANCE','REVERSAL') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_points_ledger_sid
+   on points_ledger (sid);
+
+alter table points_ledger
+   add constraint uk_points_ledger_credit unique (credit_key);
+
+create table fa_points_summary (
+    dept_points bigint not null,
+    faid bigint not null,
+    institute_points bigint not null,
+    other_points bigint not null,
+    primary key (faid)
+) engine=InnoDB;
@@ -0,0 +1,37 @@
+-- Secondary indexes for the lookup columns on the request hot paths. InnoDB appends
+-- the primary key to every secondary index, so e.g. (sid, status) on requests also
+-- covers the rid ordering of the FA inbox. Keep in sync with IndexHealthCheck.
+
+-- FA student lists: WHERE faid = ? ORDER BY name
+create index idx_student_faid_name
+   on student (faid, name);
+
+-- Student request history and the FA inbox join
+create index idx_requests_sid_status
+   on requests (sid, status);
+
+-- Per-student activity timeline, newest first (actid lookups use the primary key)
+create index idx_student_activity_sid_date
+   on student_activity (sid, date desc);
+
+-- Activity lookups by name on approval and bulk upload, and the mandatory filter
+create index idx_activity_name
+   on activity (name);
+
+create index idx_activity_mandatory
+   on activity (mandatory);
+
+-- Attendance validation per activity and student
+create index idx_validation_actid_sid
+   on validation (actid, sid);
+
+-- FA announcement feed
+create index idx_announcements_faid_date
+   on announcements (faid, date desc);
+
+-- Refresh token rotation and expiry cleanup (token itself is unique)
+create index idx_refresh_tokens_user
+   on refresh_tokens (user_email, user_role);
+
+create index idx_refresh_tokens_expiry
+   on refresh_tokens (expiry_date);
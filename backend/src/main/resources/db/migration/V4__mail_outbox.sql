@@ -0,0 +1,22 @@
+-- Outgoing mail is queued here on the request path and sent by MailOutboxDispatcher
+create table mail_outbox (
+    attempts integer not null,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    next_attempt_at datetime(6) not null,
+    sent_at datetime(6),
+    claim_token varchar(36),
+    last_error varchar(500),
+    recipient varchar(255) not null,
+    subject varchar(255) not null,
+    body TEXT not null,
+    status enum ('FAILED','PENDING','SENT') not null,
+    primary key (id)
+) engine=InnoDB;
+
+-- Due-message scan: WHERE status = 'PENDING' AND next_attempt_at <= ? ORDER BY next_attempt_at
+create index idx_mail_outbox_due
+   on mail_outbox (status, next_attempt_at);
+
+create index idx_mail_outbox_claim
+   on mail_outbox (claim_token);
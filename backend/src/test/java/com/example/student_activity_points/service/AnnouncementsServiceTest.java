@@ -0,0 +1,120 @@
+package com.example.student_activity_points.service;
+
+import com.example.student_activity_points.domain.Announcements;
+import com.example.student_activity_points.domain.Departments;
+import com.example.student_activity_points.domain.Fa;
+import com.example.student_activity_points.domain.MailOutbox;
+import com.example.student_activity_points.domain.Student;
+import com.example.student_activity_points.repository.DepartmentsRepository;
+import com.example.student_activity_points.repository.FARepository;
+import com.example.student_activity_points.repository.StudentRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AnnouncementsServiceTest {
+
+    @Autowired
+    private AnnouncementsService announcementsService;
+
+    @Autowired
+    private DepartmentsRepository departmentsRepository;
+
+    @Autowired
+    private FARepository faRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void postWithMaximumLengthTitleQueuesTruncatedSubjects() {
+        Departments department = department("Announcements");
+        int faid = fa(department, "fa@announcements.test");
+        for (int i = 1; i <= 2; i++) {
+            student("AN" + i, "student" + i + "@announcements.test", department, faid);
+        }
+
+        // As long as the title column allows, so the prefixed subject is longer than the outbox column
+        String title = "T".repeat(255);
+        Announcements announcement = new Announcements();
+        announcement.setFaid(faid);
+        announcement.setTime("10:00");
+        announcement.setTitle(title);
+        announcement.setBody("Body");
+        Announcements saved = announcementsService.post(announcement);
+
+        assertThat(saved.getTitle()).isEqualTo(title);
+        List<String> subjects = jdbcTemplate.queryForList(
+                "SELECT subject FROM mail_outbox WHERE recipient LIKE '%@announcements.test'", String.class);
+        assertThat(subjects).hasSize(2).allSatisfy(subject -> {
+            assertThat(subject).hasSize(MailOutbox.MAX_SUBJECT_LENGTH);
+            assertThat(subject).startsWith("New announcement: TTT");
+        });
+        assertThat(announcementsService.getAnnouncementsByFAID(faid))
+                .extracting(Announcements::getAid).containsExactly(saved.getAid());
+    }
+
+    @Test
+    void deletedStudentIsForgottenOnceTheDeleteCommits() {
+        Departments department = department("Deletions");
+        int oldFaid = fa(department, "old-fa@deletions.test");
+        int newFaid = fa(department, "new-fa@deletions.test");
+        student("DEL1", "del1@deletions.test", department, oldFaid);
+        assertThat(announcementsService.findFaidOfStudent("DEL1")).contains(oldFaid);
+
+        // As the bulk-delete chunk writer does it
+        transactionTemplate.executeWithoutResult(status -> {
+            studentRepository.deleteBySidIn(List.of("DEL1"));
+            announcementsService.forgetStudents(List.of("DEL1"));
+        });
+        assertThat(announcementsService.findFaidOfStudent("DEL1")).isEmpty();
+
+        // The SID comes back under another FA
+        student("DEL1", "del1@deletions.test", department, newFaid);
+        announcementsService.forgetStudent("DEL1");
+        assertThat(announcementsService.findFaidOfStudent("DEL1")).contains(newFaid);
+    }
+
+    /* ===================== INTERNAL ===================== */
+
+    private Departments department(String name) {
+        Departments department = new Departments();
+        department.setName(name);
+        return departmentsRepository.save(department);
+    }
+
+    private int fa(Departments department, String email) {
+        Fa fa = new Fa();
+        fa.setName("FA " + email);
+        fa.setEmailID(email);
+        fa.setDepartment(department);
+        return faRepository.save(fa).getFAID().intValue();
+    }
+
+    private void student(String sid, String email, Departments department, int faid) {
+        Student student = new Student();
+        student.setSid(sid);
+        student.setName("Student " + sid);
+        student.setEmailID(email);
+        student.setFaid(faid);
+        student.setDid(department.getDID().intValue());
+        student.setActivityPoints(0);
+        studentRepository.save(student);
+    }
+}
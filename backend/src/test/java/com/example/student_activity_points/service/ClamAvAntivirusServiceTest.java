@@ -0,0 +1,151 @@
+package com.example.student_activity_points.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+
+import static com.example.student_activity_points.service.ClamdClientTest.failingAfter;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClamAvAntivirusServiceTest {
+
+    private static final long OPEN_DURATION_MS = 500;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private FakeClamd clamd;
+    private ClamAvAntivirusService service;
+
+    @BeforeEach
+    void startClamd() throws IOException {
+        clamd = new FakeClamd();
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        if (service != null) service.shutdown();
+        clamd.close();
+    }
+
+    @Test
+    void circuitOpensAfterFailuresThenClosesOnASuccessfulTrial() throws Exception {
+        service = newService(2);
+        clamd.stop();
+
+        assertThat(service.isFileSafe(file("a"))).isFalse();
+        assertThat(circuitOpen()).isFalse();
+        assertThat(service.isFileSafe(file("b"))).isFalse();
+        assertThat(circuitOpen()).isTrue();
+
+        // Open: fails fast without trying clamd, even once it is back
+        clamd.start();
+        assertThat(service.scanAsync(file("c"))).isCompletedExceptionally();
+        assertThat(clamd.getConnections()).isZero();
+
+        Thread.sleep(OPEN_DURATION_MS + 100);
+
+        // The trial goes through and closes the circuit
+        assertThat(service.isFileSafe(file("d"))).isTrue();
+        assertThat(circuitOpen()).isFalse();
+        assertThat(service.isFileSafe(file("e"))).isTrue();
+        assertThat(clamd.getScans()).isEqualTo(2);
+    }
+
+    @Test
+    void failedTrialReopensTheCircuit() throws Exception {
+        service = newService(1);
+        clamd.stop();
+
+        assertThat(service.isFileSafe(file("a"))).isFalse();
+        assertThat(circuitOpen()).isTrue();
+
+        Thread.sleep(OPEN_DURATION_MS + 100);
+        assertThat(service.isFileSafe(file("b"))).isFalse();
+
+        // Reopened for another open duration
+        clamd.start();
+        assertThat(service.scanAsync(file("c"))).isCompletedExceptionally();
+        assertThat(clamd.getConnections()).isZero();
+    }
+
+    @Test
+    void unreadableContentDoesNotTripTheBreaker() throws Exception {
+        service = newService(1);
+        MultipartFile unreadable = new MockMultipartFile("file", "gone.pdf", "application/pdf", new byte[0]) {
+            @Override
+            public InputStream getInputStream() {
+                return failingAfter(100);
+            }
+        };
+
+        assertThat(service.isFileSafe(unreadable)).isFalse();
+        assertThat(service.isFileSafe(unreadable)).isFalse();
+
+        assertThat(circuitOpen()).isFalse();
+        assertThat(service.isFileSafe(file("fine"))).isTrue();
+    }
+
+    @Test
+    void verdictCacheIsClearedWhenTheSignatureVersionChanges() throws Exception {
+        service = newService(5);
+        service.refreshSignatureVersion();
+
+        assertThat(service.isFileSafe(file("same file"))).isTrue();
+        assertThat(service.isFileSafe(file("same file"))).isTrue();
+        assertThat(clamd.getScans()).isEqualTo(1);
+
+        // Infected content is never remembered
+        String infected = "payload " + FakeClamd.INFECTED_MARKER;
+        assertThat(service.isFileSafe(file(infected))).isFalse();
+        assertThat(service.isFileSafe(file(infected))).isFalse();
+        assertThat(clamd.getScans()).isEqualTo(3);
+
+        clamd.setSignatureVersion(27001);
+        service.refreshSignatureVersion();
+
+        assertThat(service.isFileSafe(file("same file"))).isTrue();
+        assertThat(clamd.getScans()).isEqualTo(4);
+        assertThat(service.isFileSafe(file("same file"))).isTrue();
+        assertThat(clamd.getScans()).isEqualTo(4);
+    }
+
+    /* ===================== INTERNAL ===================== */
+
+    private ClamAvAntivirusService newService(int failureThreshold) {
+        ClamAvAntivirusService service = new ClamAvAntivirusService();
+        ReflectionTestUtils.setField(service, "antivirusEnabled", true);
+        ReflectionTestUtils.setField(service, "clamavHost", InetAddress.getLoopbackAddress().getHostAddress());
+        ReflectionTestUtils.setField(service, "clamavPort", clamd.getPort());
+        ReflectionTestUtils.setField(service, "timeout", 2_000);
+        ReflectionTestUtils.setField(service, "maxConnections", 2);
+        ReflectionTestUtils.setField(service, "queueCapacity", 8);
+        ReflectionTestUtils.setField(service, "chunkSize", 8_192);
+        ReflectionTestUtils.setField(service, "idleTimeout", 20_000L);
+        ReflectionTestUtils.setField(service, "failureThreshold", failureThreshold);
+        ReflectionTestUtils.setField(service, "openDuration", OPEN_DURATION_MS);
+        ReflectionTestUtils.setField(service, "verdictCacheMaxSize", 100L);
+        ReflectionTestUtils.setField(service, "verdictCacheTtlHours", 1L);
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+        service.init();
+        return service;
+    }
+
+    private static MultipartFile file(String text) {
+        return new MockMultipartFile("file", text + ".pdf", "application/pdf",
+                text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private boolean circuitOpen() {
+        return meterRegistry.get("antivirus.clamav.circuit.open").gauge().value() == 1;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.student_activity_points.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClamdClientTest {
+
+    private static final int MAX_CONNECTIONS = 4;
+
+    private FakeClamd clamd;
+    private ClamdClient client;
+
+    @BeforeEach
+    void start() throws IOException {
+        clamd = new FakeClamd();
+        client = new ClamdClient(InetAddress.getLoopbackAddress().getHostAddress(), clamd.getPort(),
+                2_000, MAX_CONNECTIONS, 8_192, 20_000);
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        client.close();
+        clamd.close();
+    }
+
+    @Test
+    void concurrentScansShareThePooledSessions() throws Exception {
+        clamd.setScanDelayMs(20);
+        ExecutorService callers = Executors.newFixedThreadPool(2 * MAX_CONNECTIONS);
+        try {
+            List<Future<ClamdClient.ScanResult>> results = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                InputStreamSource content = content("file " + i);
+                results.add(callers.submit(() -> client.scan(content)));
+            }
+            for (Future<ClamdClient.ScanResult> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS).getStatus()).isEqualTo(ClamdClient.ScanResult.Status.CLEAN);
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertThat(clamd.getScans()).isEqualTo(40);
+        assertThat(clamd.getMaxActiveScans()).isBetween(2, MAX_CONNECTIONS);
+        assertThat(clamd.getConnections()).isBetween(2, MAX_CONNECTIONS);
+    }
+
+    @Test
+    void reportsInfectedContentAndItsHash() throws IOException {
+        ClamdClient.ScanResult result = client.scan(content("X5O!P%@AP " + FakeClamd.INFECTED_MARKER));
+
+        assertThat(result.getStatus()).isEqualTo(ClamdClient.ScanResult.Status.INFECTED);
+        assertThat(result.getReply()).endsWith("FOUND");
+        assertThat(result.getSha256()).hasSize(64);
+        assertThat(client.signatureVersion()).isEqualTo("27000");
+        assertThat(client.ping()).isTrue();
+        // All on the one session
+        assertThat(clamd.getConnections()).isEqualTo(1);
+    }
+
+    @Test
+    void sessionClosedByClamdWhileIdleIsRetriedOnANewOne() throws IOException {
+        assertThat(client.scan(content("first")).getStatus()).isEqualTo(ClamdClient.ScanResult.Status.CLEAN);
+        assertThat(client.scan(content("second")).getStatus()).isEqualTo(ClamdClient.ScanResult.Status.CLEAN);
+        assertThat(clamd.getConnections()).isEqualTo(1);
+
+        clamd.dropConnections();
+
+        assertThat(client.scan(content("third")).getStatus()).isEqualTo(ClamdClient.ScanResult.Status.CLEAN);
+        assertThat(clamd.getConnections()).isEqualTo(2);
+        assertThat(clamd.getScans()).isEqualTo(3);
+    }
+
+    @Test
+    void unreadableContentIsNotRetried() throws IOException {
+        client.scan(content("warm up"));
+
+        assertThatThrownBy(() -> client.scan(() -> failingAfter(100)))
+                .isInstanceOf(ClamdClient.SourceReadException.class)
+                .hasMessageContaining("disk gone");
+        // No second session was opened for a retry
+        assertThat(clamd.getConnections()).isEqualTo(1);
+
+        // The half-used session was discarded
+        assertThat(client.scan(content("after")).getStatus()).isEqualTo(ClamdClient.ScanResult.Status.CLEAN);
+        assertThat(clamd.getConnections()).isEqualTo(2);
+    }
+
+    static InputStreamSource content(String text) {
+        return new ByteArrayResource(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /** A stream that yields some bytes, then fails like a vanished file */
+    static InputStream failingAfter(int bytes) {
+        return new InputStream() {
+            private int remaining = bytes;
+
+            @Override
+            public int read() throws IOException {
+                if (remaining-- > 0) return 'x';
+                throw new IOException("disk gone");
+            }
+        };
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.student_activity_points.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Just enough of clamd for the client: zIDSESSION, zINSTREAM, zVERSION, zPING and zEND
+ * over a local ServerSocket. A stream containing "EICAR" is reported infected.
+ *
+ * stop() and start() take the daemon down and bring it back on the same port;
+ * dropConnections() closes every open session, as clamd does with idle ones.
+ */
+class FakeClamd implements AutoCloseable {
+
+    static final String INFECTED_MARKER = "EICAR";
+
+    private final Set<Socket> clients = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger scans = new AtomicInteger();
+    private final AtomicInteger activeScans = new AtomicInteger();
+    private final AtomicInteger maxActiveScans = new AtomicInteger();
+
+    private volatile ServerSocket serverSocket;
+    private volatile int port;
+    private volatile int signatureVersion = 27000;
+    private volatile long scanDelayMs;
+
+    FakeClamd() throws IOException {
+        start();
+    }
+
+    synchronized void start() throws IOException {
+        ServerSocket socket = new ServerSocket();
+        socket.setReuseAddress(true);
+        socket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        port = socket.getLocalPort();
+        serverSocket = socket;
+
+        Thread acceptor = new Thread(() -> accept(socket), "fake-clamd-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /** Refuses new connections and drops the open ones */
+    synchronized void stop() throws IOException {
+        serverSocket.close();
+        dropConnections();
+    }
+
+    void dropConnections() {
+        for (Socket client : clients) {
+            closeQuietly(client);
+        }
+        clients.clear();
+    }
+
+    int getPort() { return port; }
+
+    /** Connections accepted so far */
+    int getConnections() { return connections.get(); }
+
+    /** INSTREAM commands answered so far */
+    int getScans() { return scans.get(); }
+
+    /** The most scans that were in progress at the same time */
+    int getMaxActiveScans() { return maxActiveScans.get(); }
+
+    void setSignatureVersion(int signatureVersion) { this.signatureVersion = signatureVersion; }
+
+    /** Holds each INSTREAM reply back this long, so concurrent scans overlap */
+    void setScanDelayMs(long scanDelayMs) { this.scanDelayMs = scanDelayMs; }
+
+    @Override
+    public void close() throws IOException {
+        stop();
+    }
+
+    /* ===================== INTERNAL ===================== */
+
+    private void accept(ServerSocket socket) {
+        while (!socket.isClosed()) {
+            try {
+                Socket client = socket.accept();
+                connections.incrementAndGet();
+                clients.add(client);
+                Thread handler = new Thread(() -> serve(client), "fake-clamd-" + connections.get());
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                // Closed by stop()
+            }
+        }
+    }
+
+    private void serve(Socket client) {
+        try (client) {
+            DataInputStream in = new DataInputStream(client.getInputStream());
+            OutputStream out = client.getOutputStream();
+
+            boolean session = false;
+            int requestId = 0;
+            String command;
+            while ((command = readCommand(in)) != null) {
+                if (command.equals("zIDSESSION")) {
+                    session = true;
+                    continue;
+                }
+                if (command.equals("zEND")) {
+                    return;
+                }
+
+                String reply = answer(command, in);
+                String prefix = session ? ++requestId + ": " : "";
+                out.write((prefix + reply + "\0").getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+
+                // Outside a session clamd closes the connection after one command
+                if (!session) return;
+            }
+        } catch (IOException e) {
+            // Client went away or dropConnections() closed the socket
+        } finally {
+            clients.remove(client);
+        }
+    }
+
+    private String answer(String command, DataInputStream in) throws IOException {
+        switch (command) {
+            case "zPING":
+                return "PONG";
+            case "zVERSION":
+                return "ClamAV 1.0.0/" + signatureVersion + "/Mon Oct  6 08:00:00 2025";
+            case "zINSTREAM":
+                return instream(in);
+            default:
+                return "UNKNOWN COMMAND";
+        }
+    }
+
+    private String instream(DataInputStream in) throws IOException {
+        int active = activeScans.incrementAndGet();
+        maxActiveScans.accumulateAndGet(active, Math::max);
+        try {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            int length;
+            while ((length = in.readInt()) > 0) {
+                content.write(in.readNBytes(length));
+            }
+            if (scanDelayMs > 0) {
+                Thread.sleep(scanDelayMs);
+            }
+            scans.incrementAndGet();
+            return content.toString(StandardCharsets.US_ASCII).contains(INFECTED_MARKER)
+                    ? "stream: Eicar-Test-Signature FOUND"
+                    : "stream: OK";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        } finally {
+            activeScans.decrementAndGet();
+        }
+    }
+
+    // Commands are "z<NAME>\0"; null at end of stream
+    private static String readCommand(InputStream in) throws IOException {
+        ByteArrayOutputStream command = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != 0) {
+            if (b < 0) {
+                if (command.size() == 0) return null;
+                throw new EOFException("Connection closed mid-command");
+            }
+            command.write(b);
+        }
+        return command.toString(StandardCharsets.US_ASCII);
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // Already closed
+        }
+    }
+}
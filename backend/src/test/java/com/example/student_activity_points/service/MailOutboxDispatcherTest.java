@@ -0,0 +1,180 @@
+package com.example.student_activity_points.service;
+
+import com.example.student_activity_points.domain.MailOutbox;
+import com.example.student_activity_points.repository.MailOutboxRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Runs the dispatcher against an in-process SMTP server (see RejectingGreenMail).
+ * The test profile turns the scheduler off, so each dispatch() here is the only one.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class MailOutboxDispatcherTest {
+
+    private static final long INITIAL_BACKOFF_SECONDS = 30;
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private MailOutboxDispatcher dispatcher;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private RejectingGreenMail greenMail;
+
+    @BeforeEach
+    void startSmtpServer() {
+        mailOutboxRepository.deleteAll();
+        greenMail = new RejectingGreenMail();
+        greenMail.start();
+    }
+
+    @AfterEach
+    void stopSmtpServer() {
+        greenMail.stop();
+    }
+
+    @Test
+    void sendsEachGroupOverOneConnection() {
+        // messages-per-connection is 25: groups of 25, 25 and 10
+        for (int i = 0; i < 60; i++) {
+            emailService.sendEmail("student" + i + "@outbox.test", "Subject " + i, "Body " + i);
+        }
+
+        dispatcher.dispatch();
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(60);
+        assertThat(greenMail.getConnectionCount()).isEqualTo(3);
+        assertThat(mailOutboxRepository.findAll()).allSatisfy(mail -> {
+            assertThat(mail.getStatus()).isEqualTo(MailOutbox.Status.SENT);
+            assertThat(mail.getAttempts()).isEqualTo(1);
+            assertThat(mail.getClaimToken()).isNull();
+            assertThat(mail.getSentAt()).isNotNull();
+        });
+    }
+
+    @Test
+    void rejectedRecipientBacksOffThenFails() {
+        emailService.sendEmail("first@outbox.test", "Hello", "Body");
+        emailService.sendEmail(RejectingGreenMail.REJECTED_PREFIX + "@outbox.test", "Hello", "Body");
+        emailService.sendEmail("second@outbox.test", "Hello", "Body");
+
+        dispatcher.dispatch();
+
+        // The other two still go out over the same connection
+        assertThat(greenMail.getReceivedMessages()).hasSize(2);
+        assertThat(greenMail.getConnectionCount()).isEqualTo(1);
+
+        MailOutbox rejected = rejectedMail();
+        assertThat(rejected.getStatus()).isEqualTo(MailOutbox.Status.PENDING);
+        assertThat(rejected.getAttempts()).isEqualTo(1);
+        assertThat(rejected.getLastError()).isNotBlank();
+        assertThat(rejected.getClaimToken()).isNull();
+        assertThat(Duration.between(LocalDateTime.now(), rejected.getNextAttemptAt()).toSeconds())
+                .isCloseTo(INITIAL_BACKOFF_SECONDS, within(2L));
+
+        // Not due yet, so a poll leaves it alone
+        dispatcher.dispatch();
+        assertThat(rejectedMail().getAttempts()).isEqualTo(1);
+
+        makeDue();
+        dispatcher.dispatch();
+        rejected = rejectedMail();
+        assertThat(rejected.getStatus()).isEqualTo(MailOutbox.Status.PENDING);
+        assertThat(rejected.getAttempts()).isEqualTo(2);
+        assertThat(Duration.between(LocalDateTime.now(), rejected.getNextAttemptAt()).toSeconds())
+                .isCloseTo(2 * INITIAL_BACKOFF_SECONDS, within(2L));
+
+        makeDue();
+        dispatcher.dispatch();
+        rejected = rejectedMail();
+        assertThat(rejected.getStatus()).isEqualTo(MailOutbox.Status.FAILED);
+        assertThat(rejected.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+
+        // FAILED is final
+        makeDue();
+        dispatcher.dispatch();
+        assertThat(rejectedMail().getAttempts()).isEqualTo(MAX_ATTEMPTS);
+        assertThat(greenMail.getReceivedMessages()).hasSize(2);
+    }
+
+    @Test
+    void malformedRecipientFailsAtOnceWithoutHoldingUpItsGroup() {
+        emailService.sendEmail("valid@outbox.test", "Hello", "Body");
+        emailService.sendEmail("not an address", "Hello", "Body");
+
+        dispatcher.dispatch();
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+        MailOutbox malformed = findByRecipient("not an address");
+        assertThat(malformed.getStatus()).isEqualTo(MailOutbox.Status.FAILED);
+        assertThat(malformed.getAttempts()).isEqualTo(1);
+        assertThat(malformed.getLastError()).isNotBlank();
+        assertThat(findByRecipient("valid@outbox.test").getStatus()).isEqualTo(MailOutbox.Status.SENT);
+    }
+
+    @Test
+    void messagesOfAnExpiredLeaseAreSentAgain() throws InterruptedException {
+        emailService.sendEmail("first@outbox.test", "Hello", "Body");
+        emailService.sendEmail("second@outbox.test", "Hello", "Body");
+
+        // A run that leased the messages and died before sending them
+        List<Long> ids = new ArrayList<>();
+        mailOutboxRepository.findAll().forEach(mail -> ids.add(mail.getId()));
+        LocalDateTime now = LocalDateTime.now();
+        assertThat(mailOutboxRepository.claim(ids, MailOutbox.Status.PENDING, now, "crashed-run",
+                now.plusSeconds(1))).isEqualTo(2);
+
+        dispatcher.dispatch();
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+
+        Thread.sleep(1_500);
+        dispatcher.dispatch();
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(2);
+        assertThat(mailOutboxRepository.findAll()).allSatisfy(mail -> {
+            assertThat(mail.getStatus()).isEqualTo(MailOutbox.Status.SENT);
+            assertThat(mail.getClaimToken()).isNull();
+        });
+    }
+
+    /* ===================== INTERNAL ===================== */
+
+    private MailOutbox rejectedMail() {
+        return findByRecipient(RejectingGreenMail.REJECTED_PREFIX + "@outbox.test");
+    }
+
+    private MailOutbox findByRecipient(String recipient) {
+        for (MailOutbox mail : mailOutboxRepository.findAll()) {
+            if (mail.getRecipient().equals(recipient)) return mail;
+        }
+        throw new AssertionError("No outbox row for " + recipient);
+    }
+
+    private void makeDue() {
+        jdbcTemplate.update("UPDATE mail_outbox SET next_attempt_at = ? WHERE status = 'PENDING'",
+                LocalDateTime.now().minusSeconds(1));
+    }
+}
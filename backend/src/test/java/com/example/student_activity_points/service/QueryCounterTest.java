@@ -0,0 +1,63 @@
+package com.example.student_activity_points.service;
+
+import com.example.student_activity_points.repository.DepartmentsRepository;
+import com.example.student_activity_points.util.QueryCounter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * QueryCounter only sees what QueryCountConfig's StatementInspector reports, so these
+ * also prove the inspector is registered with Hibernate.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class QueryCounterTest {
+
+    @Autowired
+    private DepartmentsRepository departmentsRepository;
+
+    @Test
+    void countsTheStatementsOfARepositoryCall() throws Exception {
+        QueryCounter.Scope scope = QueryCounter.measure(() -> departmentsRepository.findById(-1L));
+
+        assertThat(scope.getStatements()).isEqualTo(1);
+        scope.assertStatementsAtMost(1);
+    }
+
+    @Test
+    void failsWhenTheBoundIsExceeded() throws Exception {
+        QueryCounter.Scope scope = QueryCounter.measure(() -> {
+            departmentsRepository.findById(-1L);
+            return departmentsRepository.findById(-2L);
+        });
+
+        assertThat(scope.getStatements()).isEqualTo(2);
+        assertThatThrownBy(() -> scope.assertStatementsAtMost(1))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("at most 1")
+                .hasMessageContaining("2 were run");
+    }
+
+    @Test
+    void outerScopeSeesTheStatementsOfNestedOnes() throws Exception {
+        QueryCounter.Scope[] inner = new QueryCounter.Scope[1];
+        QueryCounter.Scope outer = QueryCounter.measure(() -> {
+            departmentsRepository.findById(-1L);
+            inner[0] = QueryCounter.measure(() -> departmentsRepository.findById(-2L));
+            return null;
+        });
+
+        assertThat(inner[0].getStatements()).isEqualTo(1);
+        assertThat(outer.getStatements()).isEqualTo(2);
+
+        // Closed scopes stop counting
+        departmentsRepository.findById(-3L);
+        assertThat(outer.getStatements()).isEqualTo(2);
+    }
+}
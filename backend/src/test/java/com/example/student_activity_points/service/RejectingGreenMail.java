@@ -0,0 +1,80 @@
+package com.example.student_activity_points.service;
+
+import com.icegreen.greenmail.Managers;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.imap.ImapHostManager;
+import com.icegreen.greenmail.mail.MailAddress;
+import com.icegreen.greenmail.server.AbstractServer;
+import com.icegreen.greenmail.smtp.SmtpManager;
+import com.icegreen.greenmail.smtp.SmtpState;
+import com.icegreen.greenmail.user.UserManager;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * GreenMail SMTP server on the test port (3025) that refuses RCPT TO for local parts
+ * starting with "reject", and counts the SMTP connections that sent mail.
+ */
+class RejectingGreenMail extends GreenMail {
+
+    static final String REJECTED_PREFIX = "reject";
+
+    // SmtpState lives as long as its connection
+    private final Set<SmtpState> connections = Collections.synchronizedSet(
+            Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    RejectingGreenMail() {
+        super(ServerSetupTest.SMTP);
+        // Accept whatever credentials spring.mail carries
+        withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+    }
+
+    int getConnectionCount() {
+        return connections.size();
+    }
+
+    @Override
+    protected Map<String, AbstractServer> createServices(ServerSetup[] config, Managers managers) {
+        return super.createServices(config, new RejectingManagers(managers));
+    }
+
+    /** Shares the stores of the server's own managers, so received mail is visible as usual */
+    private class RejectingManagers extends Managers {
+        private final Managers delegate;
+        private final SmtpManager smtpManager;
+
+        RejectingManagers(Managers delegate) {
+            this.delegate = delegate;
+            this.smtpManager = new SmtpManager(delegate.getImapHostManager(), delegate.getUserManager()) {
+                @Override
+                public String checkSender(SmtpState state, MailAddress sender) {
+                    connections.add(state);
+                    return super.checkSender(state, sender);
+                }
+
+                @Override
+                public String checkRecipient(SmtpState state, MailAddress recipient) {
+                    if (recipient.getUser().startsWith(REJECTED_PREFIX)) {
+                        return "550 5.1.1 Mailbox unavailable";
+                    }
+                    return super.checkRecipient(state, recipient);
+                }
+            };
+        }
+
+        @Override
+        public SmtpManager getSmtpManager() { return smtpManager; }
+
+        @Override
+        public UserManager getUserManager() { return delegate.getUserManager(); }
+
+        @Override
+        public ImapHostManager getImapHostManager() { return delegate.getImapHostManager(); }
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.student_activity_points.service;
+
+import com.example.student_activity_points.domain.Departments;
+import com.example.student_activity_points.domain.Fa;
+import com.example.student_activity_points.domain.PointsLedger;
+import com.example.student_activity_points.domain.Requests;
+import com.example.student_activity_points.domain.Student;
+import com.example.student_activity_points.repository.DepartmentsRepository;
+import com.example.student_activity_points.repository.FARepository;
+import com.example.student_activity_points.repository.RequestsRepository;
+import com.example.student_activity_points.repository.StudentRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent credits and approvals for one student must neither lose nor double any
+ * points: the Student totals, the ledger, the FA rollup and the version have to agree.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class StudentPointsServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int POINTS = 5;
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private StudentPointsService studentPointsService;
+
+    @Autowired
+    private RequestApprovalService requestApprovalService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private FARepository faRepository;
+
+    @Autowired
+    private DepartmentsRepository departmentsRepository;
+
+    @Autowired
+    private RequestsRepository requestsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String sid;
+    private long faid;
+
+    @BeforeEach
+    void createStudent() {
+        int n = SEQUENCE.incrementAndGet();
+
+        Departments department = new Departments();
+        department.setName("Concurrency " + n);
+        department = departmentsRepository.save(department);
+
+        Fa fa = new Fa();
+        fa.setName("FA " + n);
+        fa.setEmailID("fa" + n + "@concurrency.test");
+        fa.setDepartment(department);
+        faid = faRepository.save(fa).getFAID();
+
+        Student student = new Student();
+        sid = "CT" + n;
+        student.setSid(sid);
+        student.setName("Student " + n);
+        student.setEmailID("student" + n + "@concurrency.test");
+        student.setFaid((int) faid);
+        student.setDid(department.getDID().intValue());
+        student.setActivityPoints(0);
+        studentRepository.save(student);
+    }
+
+    @Test
+    void concurrentCreditsAreAllApplied() throws Exception {
+        long versionBefore = version();
+
+        List<Boolean> credited = runConcurrently(THREADS, i -> studentPointsService.credit(
+                PointsLedger.Source.ATTENDANCE, "act-" + i, "Department", sid, POINTS));
+
+        assertThat(credited).containsOnly(true);
+        assertConsistent(THREADS * POINTS, 0, 0);
+        assertThat(version()).isEqualTo(versionBefore + THREADS);
+    }
+
+    @Test
+    void concurrentApprovalsOfDistinctRequestsAreAllApplied() throws Exception {
+        List<Long> rids = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            rids.add(pendingRequest("Activity " + sid + "-" + i, Requests.Type.Institute));
+        }
+        long versionBefore = version();
+
+        List<RequestApprovalService.Outcome> outcomes = runConcurrently(THREADS,
+                i -> requestApprovalService.approve(rids.get(i), POINTS).getOutcome());
+
+        assertThat(outcomes).containsOnly(RequestApprovalService.Outcome.APPROVED);
+        assertConsistent(0, THREADS * POINTS, 0);
+        assertThat(version()).isEqualTo(versionBefore + THREADS);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM student_activity WHERE sid = ?", Integer.class, sid)).isEqualTo(THREADS);
+    }
+
+    @Test
+    void concurrentApprovalsOfOneRequestCreditOnce() throws Exception {
+        long rid = pendingRequest("Activity " + sid, Requests.Type.Other);
+        long versionBefore = version();
+
+        List<RequestApprovalService.Outcome> outcomes = runConcurrently(THREADS, i -> {
+            try {
+                return requestApprovalService.approve(rid, POINTS).getOutcome();
+            } catch (DataIntegrityViolationException e) {
+                // The ledger credit key turned away a second approval
+                return RequestApprovalService.Outcome.ALREADY_DECIDED;
+            }
+        });
+
+        assertThat(outcomes).filteredOn(RequestApprovalService.Outcome.APPROVED::equals).hasSize(1);
+        assertThat(outcomes).containsOnly(RequestApprovalService.Outcome.APPROVED,
+                RequestApprovalService.Outcome.ALREADY_DECIDED,
+                RequestApprovalService.Outcome.ALREADY_ENROLLED);
+        assertConsistent(0, 0, POINTS);
+        assertThat(version()).isEqualTo(versionBefore + 1);
+        assertThat(requestsRepository.findById(rid)).get()
+                .extracting(Requests::getStatus).isEqualTo(Requests.Status.Approved);
+    }
+
+    /* ===================== INTERNAL ===================== */
+
+    private void assertConsistent(int dept, int institute, int other) {
+        Student student = studentRepository.findById(sid).orElseThrow();
+        assertThat(student.getDeptPoints()).isEqualTo(dept);
+        assertThat(student.getInstitutePoints()).isEqualTo(institute);
+        assertThat(student.getOtherPoints()).isEqualTo(other);
+        assertThat(student.getActivityPoints()).isEqualTo(dept + institute + other);
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(points), 0) FROM points_ledger WHERE sid = ?", Integer.class, sid))
+                .isEqualTo(dept + institute + other);
+
+        assertThat(jdbcTemplate.queryForMap(
+                "SELECT dept_points, institute_points, other_points FROM fa_points_summary WHERE faid = ?", faid))
+                .containsEntry("dept_points", (long) dept)
+                .containsEntry("institute_points", (long) institute)
+                .containsEntry("other_points", (long) other);
+    }
+
+    private long version() {
+        return jdbcTemplate.queryForObject("SELECT version FROM student WHERE sid = ?", Long.class, sid);
+    }
+
+    private long pendingRequest(String activityName, Requests.Type type) {
+        Requests request = new Requests();
+        request.setSid(sid);
+        request.setDate(new Date());
+        request.setActivityName(activityName);
+        request.setDescription("Concurrency test");
+        request.setActivityDate(new Date());
+        request.setType(type);
+        return requestsRepository.save(request).getRid();
+    }
+
+    /** Runs task(0..n-1) on n threads released together and returns the results in order */
+    private static <T> List<T> runConcurrently(int n, IndexedTask<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(n);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                int index = i;
+                Callable<T> call = () -> {
+                    start.await();
+                    return task.run(index);
+                };
+                futures.add(executor.submit(call));
+            }
+            start.countDown();
+
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexedTask<T> {
+        T run(int index) throws Exception;
+    }
+}